@@ -0,0 +1,244 @@
+package FixItNow;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import FixItNow.manager.BookingSlotIndex;
+import FixItNow.model.BookingStatus;
+import FixItNow.model.Conversation;
+import FixItNow.model.GeoPoint;
+import FixItNow.model.TimeSlot;
+import FixItNow.model.WeeklyAvailability;
+
+/**
+ * Data/column changes that ddl-auto=update cannot make on an existing MySQL
+ * schema. Every step checks the current state first, so running it on each
+ * startup is a no-op once the database has been migrated. Runs before DataLoader.
+ */
+@Component
+@Profile("!test")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SchemaMigrations implements CommandLineRunner {
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Override
+    public void run(String... args) throws Exception {
+        bookedServiceAsJson();
+        bookingSlotColumns();
+        bookingVersions();
+        bookingStatusAsVarchar();
+        userCoordinates();
+        serviceAvailabilityMasks();
+        serviceVersions();
+        providerRatingStats();
+        conversations();
+        bookingSlotClaims();
+    }
+
+    // bookings.booked_service TEXT -> JSON; values that are not valid JSON are kept under "raw"
+    private void bookedServiceAsJson() {
+        String type = columnType("bookings", "booked_service");
+        if (type == null || "json".equalsIgnoreCase(type)) return;
+
+        jdbc.update("UPDATE bookings SET booked_service = NULL WHERE TRIM(booked_service) = ''");
+        jdbc.update("UPDATE bookings SET booked_service = JSON_OBJECT('raw', booked_service) WHERE JSON_VALID(booked_service) = 0");
+        jdbc.execute("ALTER TABLE bookings MODIFY booked_service JSON");
+        log.info("bookings.booked_service converted to JSON");
+    }
+
+    // fill slot_start/slot_end from the free-form time_slot of rows written before the columns existed
+    private void bookingSlotColumns() {
+        if (columnType("bookings", "slot_start") == null) return;
+
+        List<Object[]> updates = new ArrayList<>();
+        jdbc.query("SELECT booking_id, time_slot FROM bookings WHERE slot_start IS NULL", rs -> {
+            TimeSlot slot = TimeSlot.tryParse(rs.getString("time_slot"));
+            if (slot != null) {
+                updates.add(new Object[] { slot.getStartMinute(), slot.getEndMinute(), rs.getString("booking_id") });
+            }
+        });
+        if (updates.isEmpty()) return;
+
+        jdbc.batchUpdate("UPDATE bookings SET slot_start = ?, slot_end = ? WHERE booking_id = ?", updates);
+        log.info("parsed time slots of {} bookings", updates.size());
+    }
+
+    // rows written before bookings.version existed; Spring Data treats a null version as a new entity
+    private void bookingVersions() {
+        if (columnType("bookings", "version") == null) return;
+
+        int rows = jdbc.update("UPDATE bookings SET version = 0 WHERE version IS NULL");
+        if (rows > 0) log.info("initialised version of {} bookings", rows);
+    }
+
+    // bookings.status was created as ENUM(...) and cannot hold statuses added later (EXPIRED)
+    private void bookingStatusAsVarchar() {
+        if (!"enum".equalsIgnoreCase(columnType("bookings", "status"))) return;
+
+        jdbc.execute("ALTER TABLE bookings MODIFY status VARCHAR(20) NOT NULL");
+        log.info("bookings.status converted to VARCHAR");
+    }
+
+    // users.latitude/longitude from locations saved as "lat, lng" text before the columns existed
+    private void userCoordinates() {
+        if (columnType("users", "latitude") == null) return;
+
+        List<Object[]> updates = new ArrayList<>();
+        jdbc.query("SELECT user_id, location FROM users WHERE latitude IS NULL AND location IS NOT NULL", rs -> {
+            GeoPoint point = GeoPoint.tryParse(rs.getString("location"));
+            if (point != null) {
+                updates.add(new Object[] { point.getLat(), point.getLng(), rs.getString("user_id") });
+            }
+        });
+        if (updates.isEmpty()) return;
+
+        jdbc.batchUpdate("UPDATE users SET latitude = ?, longitude = ? WHERE user_id = ?", updates);
+        log.info("parsed coordinates of {} users", updates.size());
+    }
+
+    // services.version added later; Spring Data treats a null version as a new entity
+    private void serviceVersions() {
+        if (columnType("services", "version") == null) return;
+
+        int rows = jdbc.update("UPDATE services SET version = 0 WHERE version IS NULL");
+        if (rows > 0) log.info("initialised version of {} services", rows);
+    }
+
+    // compile services.availability_mask for rows saved before the column existed
+    private void serviceAvailabilityMasks() {
+        if (columnType("services", "availability_mask") == null) return;
+
+        List<Object[]> updates = new ArrayList<>();
+        jdbc.query("SELECT service_id, availability FROM services WHERE availability_mask IS NULL", rs -> {
+            WeeklyAvailability mask = WeeklyAvailability.fromJson(rs.getString("availability"));
+            updates.add(new Object[] { mask.toBytes(), rs.getString("service_id") });
+        });
+        if (updates.isEmpty()) return;
+
+        jdbc.batchUpdate("UPDATE services SET availability_mask = ? WHERE service_id = ?", updates);
+        log.info("compiled availability of {} services", updates.size());
+    }
+
+    // provider_rating_stats is maintained by createReview; fill it once from the reviews written before it existed
+    private void providerRatingStats() {
+        if (columnType("provider_rating_stats", "provider_id") == null) return;
+        Integer existing = jdbc.queryForObject("SELECT COUNT(*) FROM provider_rating_stats", Integer.class);
+        if (existing != null && existing > 0) return;
+
+        int rows = jdbc.update("INSERT INTO provider_rating_stats"
+                + " (provider_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5, last_review_at)"
+                + " SELECT provider_id, COUNT(*), SUM(rating), SUM(rating = 1), SUM(rating = 2), SUM(rating = 3),"
+                + " SUM(rating = 4), SUM(rating = 5), MAX(created_at) FROM reviews GROUP BY provider_id");
+        if (rows > 0) log.info("rating stats of {} providers built from reviews", rows);
+    }
+
+    // one conversations row per user pair holding its latest message (needs MySQL 8 window functions)
+    private void conversations() {
+        if (columnType("conversations", "user_low") == null) return;
+        Integer existing = jdbc.queryForObject("SELECT COUNT(*) FROM conversations", Integer.class);
+        if (existing != null && existing > 0) return;
+
+        int rows = jdbc.update("INSERT INTO conversations"
+                + " (user_low, user_high, low_name, high_name, last_message_id, last_message, last_at)"
+                + " SELECT m.lo, m.hi, lo.name, hi.name, m.message_id, LEFT(m.content, " + Conversation.PREVIEW_LENGTH + "), m.sent_at"
+                + " FROM (SELECT message_id, content, sent_at,"
+                + " LEAST(sender_id, receiver_id) AS lo, GREATEST(sender_id, receiver_id) AS hi,"
+                + " ROW_NUMBER() OVER (PARTITION BY LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id)"
+                + " ORDER BY sent_at DESC, message_id DESC) AS rn"
+                + " FROM messages WHERE sender_id IS NOT NULL AND receiver_id IS NOT NULL) m"
+                + " JOIN users lo ON lo.user_id = m.lo JOIN users hi ON hi.user_id = m.hi WHERE m.rn = 1");
+        if (rows > 0) log.info("{} conversations built from messages", rows);
+    }
+
+    // Bookings that held their slot before active_slot and booking_slot_claims existed get both,
+    // oldest first. A booking overlapping one already held is reported and left without them
+    // (the overlap needs resolving by hand); it is reported again on every start until it is.
+    private void bookingSlotClaims() {
+        if (columnType("booking_slot_claims", "claim_key") == null || columnType("bookings", "active_slot") == null) return;
+
+        List<Map<String, Object>> unclaimed = jdbc.queryForList("SELECT b.booking_id, b.provider_id, b.booking_date,"
+                + " b.slot_start, b.slot_end, b.active_slot FROM bookings b"
+                + " WHERE b.status IN (" + holdingStatuses() + ") AND b.slot_start IS NOT NULL"
+                + " AND NOT EXISTS (SELECT 1 FROM booking_slot_claims c WHERE c.booking_id = b.booking_id)"
+                + " ORDER BY b.created_at, b.booking_id");
+        if (unclaimed.isEmpty()) return;
+
+        // what is already held: claims of newer bookings and the active_slot of every holding booking
+        Map<String, String> claimOwner = new HashMap<>();
+        jdbc.query("SELECT claim_key, booking_id FROM booking_slot_claims",
+                rs -> { claimOwner.put(rs.getString("claim_key"), rs.getString("booking_id")); });
+        Map<String, String> slotOwner = new HashMap<>();
+        jdbc.query("SELECT active_slot, booking_id FROM bookings WHERE active_slot IS NOT NULL",
+                rs -> { slotOwner.put(rs.getString("active_slot"), rs.getString("booking_id")); });
+
+        List<Object[]> activeSlots = new ArrayList<>();
+        List<Object[]> claims = new ArrayList<>();
+        int held = 0;
+        for (Map<String, Object> row : unclaimed) {
+            String bookingId = (String) row.get("booking_id");
+            String providerId = (String) row.get("provider_id");
+            LocalDate date = ((java.sql.Date) row.get("booking_date")).toLocalDate();
+            TimeSlot slot = new TimeSlot(((Number) row.get("slot_start")).intValue(), ((Number) row.get("slot_end")).intValue());
+            String slotKey = row.get("active_slot") != null ? (String) row.get("active_slot") : BookingSlotIndex.slotKey(providerId, date, slot);
+            List<String> keys = BookingSlotIndex.claimKeys(providerId, date, slot);
+
+            String conflict = slotOwner.get(slotKey);
+            if (bookingId.equals(conflict)) conflict = null;
+            for (int i = 0; i < keys.size() && conflict == null; i++) conflict = claimOwner.get(keys.get(i));
+            if (conflict != null) {
+                log.warn("booking {} ({} {} {}) overlaps booking {}; left without a slot hold",
+                        bookingId, providerId, date, slot, conflict);
+                continue;
+            }
+
+            if (row.get("active_slot") == null) activeSlots.add(new Object[] { slotKey, bookingId });
+            slotOwner.put(slotKey, bookingId);
+            for (String key : keys) {
+                claimOwner.put(key, bookingId);
+                claims.add(new Object[] { key, bookingId });
+            }
+            held++;
+        }
+
+        if (!activeSlots.isEmpty()) {
+            jdbc.batchUpdate("UPDATE bookings SET active_slot = ? WHERE booking_id = ? AND active_slot IS NULL", activeSlots);
+        }
+        if (!claims.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO booking_slot_claims (claim_key, booking_id) VALUES (?, ?)", claims);
+        }
+        log.info("slot holds of {} bookings built ({} active_slot values, {} claims); {} overlapping bookings skipped",
+                held, activeSlots.size(), claims.size(), unclaimed.size() - held);
+    }
+
+    private static String holdingStatuses() {
+        StringBuilder in = new StringBuilder();
+        for (BookingStatus status : BookingSlotIndex.HOLDING) {
+            if (in.length() > 0) in.append(", ");
+            in.append('\'').append(status.name()).append('\'');
+        }
+        return in.toString();
+    }
+
+    private String columnType(String table, String column) {
+        List<String> types = jdbc.queryForList(
+                "SELECT DATA_TYPE FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?",
+                String.class, table, column);
+        return types.isEmpty() ? null : types.get(0);
+    }
+}
@@ -2,17 +2,21 @@ package FixItNow.controller;
 
 import FixItNow.manager.*;
 import FixItNow.model.*;
-import FixItNow.repository.BookingRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 
 @RestController
@@ -26,67 +30,109 @@ public class BookingController {
     private UsersManager usersManager;
     
     @Autowired
-    private BookingRepository bookingRepository;
+    private BookingExpiryJob bookingExpiryJob;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
 
        
     
-    @GetMapping("/all")
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        List<Booking> bookings = bookingRepository.findAll();
-        return ResponseEntity.ok(bookings);
+    /**
+     * Admin export as newline-delimited JSON, one flat row per booking, streamed so the
+     * response never has to fit in memory: GET /bookings/all/stream?from=2025-01-01&to=2025-01-31&status=PENDING&providerId=U12
+     */
+    @GetMapping("/all/stream")
+    public ResponseEntity<?> streamAllBookings(
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "providerId", required = false) String providerId) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        BookingStatus statusFilter;
+        try {
+            fromDate = parseDate(from, "from");
+            toDate = parseDate(to, "to");
+            statusFilter = parseStatus(status);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", iae.getMessage()));
+        }
+        String provider = providerId == null || providerId.isBlank() ? null : providerId.trim();
+
+        StreamingResponseBody body = out -> bookingManager.exportBookings(out, fromDate, toDate, statusFilter, provider);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    // rows processed, conflicts with the booking write path and lag of the PENDING expiry job
+    @GetMapping("/expiry/metrics")
+    public ResponseEntity<Map<String, Object>> getExpiryMetrics() {
+        return ResponseEntity.ok(bookingExpiryJob.metrics());
     }
     
 
     @PostMapping("/create")
     public ResponseEntity<?> createBooking(
              @RequestHeader(value = "Authorization", required = false) String authHeader,
+             @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
              @RequestBody Map<String, Object> payload) {
-        try {
-            
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Collections.singletonMap("message", "Missing or invalid Authorization header"));
-            }
-            String token = authHeader.substring(7);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Collections.singletonMap("message", "Missing or invalid Authorization header"));
+        }
+        String token = authHeader.substring(7);
 
-            // Validate token
-            String email = usersManager.validateToken(token);
-            if ("401".equals(email)) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Collections.singletonMap("message", "Token expired or invalid"));
-            }
+        // Validate token
+        String email = usersManager.validateToken(token);
+        if ("401".equals(email)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Collections.singletonMap("message", "Token expired or invalid"));
+        }
 
-            // Get authenticated user (customer)
-            Users customer = usersManager.getUserByEmail(email);
-            if (customer == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Collections.singletonMap("message", "Authenticated user not found"));
-            }
-        
+        // Get authenticated user (customer)
+        Users customer = usersManager.getUserByEmail(email);
+        if (customer == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Collections.singletonMap("message", "Authenticated user not found"));
+        }
+
+        // A retried request with the same key gets the first response back and books nothing
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            return idempotencyStore.execute(customer.getId(), "create|" + idempotencyKey.trim(),
+                    fingerprint(payload), () -> createBookingFor(customer, payload));
+        }
+        return createBookingFor(customer, payload);
+    }
+
+    private ResponseEntity<?> createBookingFor(Users customer, Map<String, Object> payload) {
+        try {
             String providerId = payload.get("providerId") != null ? payload.get("providerId").toString() : null;
             String bookingDate = payload.get("bookingDate") != null ? payload.get("bookingDate").toString() : null;
             String timeSlot = payload.get("timeSlot") != null ? payload.get("timeSlot").toString() : null;
             Object bookedService = payload.get("bookedServices");
 
-            String statusFromPayload = payload.get("status") != null ? payload.get("status").toString() : null;
+            // a requested status is checked before anything is written: new bookings start as PENDING
+            BookingStatus requested = parseStatus(payload.get("status") != null ? payload.get("status").toString() : null);
+            if (requested != null && requested != BookingStatus.PENDING && !BookingStatus.PENDING.canTransitionTo(requested)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Collections.singletonMap("message", "A new booking cannot be created as " + requested));
+            }
 
-            String customerId = (customer.getId() != null && !customer.getId().isBlank()) ? customer.getId() : customer.getId();
+            String customerId = customer.getId();
 
-            
             Booking created = bookingManager.createBookingFromPayload(providerId, customerId, bookingDate, timeSlot, bookedService);
 
-            if (statusFromPayload != null && !statusFromPayload.isBlank()) {
+            if (requested != null && requested != BookingStatus.PENDING) {
                 try {
-                    bookingManager.updateBookingStatusByString(created.getId(), statusFromPayload);
-                } catch (IllegalArgumentException iae) {
-                    // status value invalid — return 400 with message
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                            .body(Collections.singletonMap("message", iae.getMessage()));
-                } catch (Exception e) {
-                    // unexpected error while saving status
-                    e.printStackTrace();
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                            .body(Collections.singletonMap("message", "Failed to save booking status"));
+                    bookingManager.updateBookingStatusByString(created.getId(), requested.name());
+                } catch (IllegalStateException ise) {
+                    // the booking is committed; say so rather than hiding it behind an error
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("message", "Booking created but its status was not changed: " + ise.getMessage());
+                    body.put("bookingId", created.getId());
+                    body.put("status", BookingStatus.PENDING.name());
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
                 }
             }
 
@@ -94,14 +140,85 @@ public class BookingController {
                     .body(Collections.singletonMap("bookingId", created.getId()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Collections.singletonMap("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            // slot already taken
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Collections.singletonMap("message", e.getMessage()));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.singletonMap("message", "Failed to create booking"));
         }
     }
-    
+
+    /**
+     * Book several slots with one provider in a single request.
+     * Body: {"providerId", "bookedServices", "items": [{"bookingDate", "timeSlot"}], "mode": "ATOMIC" | "PARTIAL"}
+     * ATOMIC (default) creates nothing and answers 409 if any item cannot be booked.
+     */
+    @SuppressWarnings("unchecked")
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBookingBatch(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody Map<String, Object> payload) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Collections.singletonMap("message", "Missing or invalid Authorization header"));
+            }
+            String email = usersManager.validateToken(authHeader.substring(7));
+            if ("401".equals(email)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Collections.singletonMap("message", "Token expired or invalid"));
+            }
+            Users customer = usersManager.getUserByEmail(email);
+            if (customer == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Collections.singletonMap("message", "Authenticated user not found"));
+            }
+
+            String providerId = payload.get("providerId") != null ? payload.get("providerId").toString() : null;
+            Object items = payload.get("items");
+            if (!(items instanceof List)) {
+                return ResponseEntity.badRequest().body(Collections.singletonMap("message", "items must be an array"));
+            }
+            String mode = payload.get("mode") != null ? payload.get("mode").toString().trim().toUpperCase() : "ATOMIC";
+            if (!"ATOMIC".equals(mode) && !"PARTIAL".equals(mode)) {
+                return ResponseEntity.badRequest().body(Collections.singletonMap("message", "mode must be ATOMIC or PARTIAL"));
+            }
+            boolean atomic = "ATOMIC".equals(mode);
+
+            Supplier<ResponseEntity<?>> create = () -> {
+                Map<String, Object> result = bookingManager.createBookingBatch(providerId, customer.getId(),
+                        (List<Map<String, Object>>) items, payload.get("bookedServices"), atomic);
+                int created = (Integer) result.get("created");
+                HttpStatus status = created > 0 ? HttpStatus.CREATED : HttpStatus.CONFLICT;
+                return ResponseEntity.status(status).body(result);
+            };
+            if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+                return idempotencyStore.execute(customer.getId(), "batch|" + idempotencyKey.trim(), fingerprint(payload), create);
+            }
+            return create.get();
+        } catch (ClassCastException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "items must be objects"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Collections.singletonMap("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Collections.singletonMap("message", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.singletonMap("message", "Failed to create bookings"));
+        }
+    }
+
     @GetMapping("/provider/me")
-    public ResponseEntity<?> getBookingsForAuthenticatedProvider(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+    public ResponseEntity<?> getBookingsForAuthenticatedProvider(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "includeHistory", defaultValue = "false") boolean includeHistory) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Collections.singletonMap("message", "Missing or invalid Authorization header"));
@@ -120,15 +237,26 @@ public class BookingController {
                     .body(Collections.singletonMap("message", "Authenticated provider not found"));
         }
 
-        // Fetch and return bookings for provider
-        List<Map<String, Object>> bookings = bookingManager.getBookingsForProvider(provider);
-        return ResponseEntity.ok(bookings);
+        // Always one page (the first without a cursor); includeHistory=true pages through archived bookings as well
+        try {
+            return ResponseEntity.ok(bookingManager.getBookingPageForProvider(provider,
+                    parseStatus(status), parseDate(from, "from"), parseDate(to, "to"), cursor, limit, includeHistory));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", iae.getMessage()));
+        }
     }
     
     
     
     @GetMapping("/customer/me")
-    public ResponseEntity<?> getBookingsForAuthenticatedCustomer(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+    public ResponseEntity<?> getBookingsForAuthenticatedCustomer(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "includeHistory", defaultValue = "false") boolean includeHistory) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Collections.singletonMap("message", "Missing or invalid Authorization header"));
@@ -148,8 +276,32 @@ public class BookingController {
                     .body(Collections.singletonMap("message", "Authenticated user not found"));
         }
 
-        List<Map<String, Object>> bookings = bookingManager.getBookingsForCustomer(customer);
-        return ResponseEntity.ok(bookings);
+        try {
+            return ResponseEntity.ok(bookingManager.getBookingPageForCustomer(customer,
+                    parseStatus(status), parseDate(from, "from"), parseDate(to, "to"), cursor, limit, includeHistory));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", iae.getMessage()));
+        }
+    }
+    
+    
+    /**
+     * Busy calendar of a provider: GET /bookings/provider/{providerId}/busy?date=2025-01-10[&to=2025-01-16]
+     * or, for one day, only the slots overlapping a window: ?date=2025-01-10&window=10:00-12:00
+     */
+    @GetMapping("/provider/{providerId}/busy")
+    public ResponseEntity<?> getProviderBusySlots(
+            @PathVariable String providerId,
+            @RequestParam("date") String date,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "window", required = false) String window) {
+        try {
+            TimeSlot slot = window == null || window.isBlank() ? null : TimeSlot.parse(window);
+            return ResponseEntity.ok(bookingManager.getBusySlots(providerId,
+                    parseDate(date, "date"), parseDate(to, "to"), slot));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", iae.getMessage()));
+        }
     }
     
     
@@ -190,30 +342,54 @@ public class BookingController {
         System.out.println("updateBookingStatus called by user=" + authUser.getId() + " bookingId=" + bookingId + " status=" + status);
 
         try {
-            // Verify booking exists
-            Optional<Booking> opt = bookingManager.findById(bookingId);
+            // Verify booking exists (owner ids only, no entity graph)
+            Optional<BookingRef> opt = bookingManager.findRef(bookingId);
             if (opt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Collections.singletonMap("message", "Booking not found"));
             }
-            Booking booking = opt.get();
 
-            Users provider = booking.getProvider();
-            if (provider == null || !provider.getId().equals(authUser.getId())) {
+            if (!authUser.getId().equals(opt.get().getProviderId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Collections.singletonMap("message", "Not allowed to update this booking"));
             }
 
-            Booking updated = bookingManager.updateBookingStatusByString(bookingId, status);
+            bookingManager.updateBookingStatusByString(bookingId, status);
 
             return ResponseEntity.ok(Collections.singletonMap("message", "Booking status updated"));
         } catch (IllegalArgumentException iae) {
             return ResponseEntity.badRequest().body(Collections.singletonMap("message", iae.getMessage()));
+        } catch (IllegalStateException ise) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Collections.singletonMap("message", ise.getMessage()));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Collections.singletonMap("message", "Failed to update booking status"));
         }
     }
-    
-}
\ No newline at end of file
+
+
+    // identifies a request body, so a reused Idempotency-Key with a different body is caught
+    private String fingerprint(Map<String, Object> payload) {
+        return IdempotencyStore.fingerprintOf(payload == null ? Collections.emptyMap() : payload);
+    }
+
+    private BookingStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) return null;
+        try {
+            return BookingStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid status: " + status);
+        }
+    }
+
+    private LocalDate parseDate(String value, String name) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return LocalDate.parse(value.trim()); // yyyy-MM-dd
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid " + name + " date. Use yyyy-MM-dd");
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package FixItNow.controller;
 
+import FixItNow.manager.ProviderDirectory;
 import FixItNow.manager.ReviewsManager;
 import FixItNow.manager.UsersManager;
 import FixItNow.model.Reviews;
@@ -10,7 +11,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 
 
@@ -24,6 +24,9 @@ public class ReviewsController {
     @Autowired
     private UsersManager usersManager;
 
+    @Autowired
+    private ProviderDirectory providerDirectory;
+
 
     @PostMapping("/create")
     public ResponseEntity<?> createReview(
@@ -73,10 +76,44 @@ public class ReviewsController {
 
    
     
-    @GetMapping("/all")
-    public ResponseEntity<List<Map<String, Object>>> getAllReviewsSimple() {
-        List<Map<String, Object>> reviews = reviewsManager.getAllReviewsSimple();
-        return ResponseEntity.ok(reviews);
+    /**
+     * Keyset-paginated review feed, newest first:
+     * GET /reviews/feed?providerId=U3&minRating=4&limit=20&cursor=<nextCursor of the previous page>
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<?> getReviewFeed(@RequestParam(required = false) String providerId,
+                                           @RequestParam(required = false) Integer minRating,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(reviewsManager.getReviewFeed(providerId, minRating, cursor, limit));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", iae.getMessage()));
+        }
+    }
+
+    // GET /reviews/provider/{id}/summary -> {providerId, reviewCount, average, histogram: {"1".."5"}, lastReviewAt}
+    @GetMapping("/provider/{providerId}/summary")
+    public ResponseEntity<?> getProviderRatingSummary(@PathVariable String providerId) {
+        if (providerDirectory.get(providerId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Collections.singletonMap("message", "Provider not found"));
+        }
+        return ResponseEntity.ok(reviewsManager.getRatingSummary(providerId));
+    }
+
+    // GET /reviews/provider/{id}/recent?limit=5 -> newest reviews for the profile page, from the cache
+    @GetMapping("/provider/{providerId}/recent")
+    public ResponseEntity<?> getRecentProviderReviews(@PathVariable String providerId,
+                                                      @RequestParam(defaultValue = "5") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "limit must be at least 1"));
+        }
+        if (providerDirectory.get(providerId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Collections.singletonMap("message", "Provider not found"));
+        }
+        return ResponseEntity.ok(reviewsManager.getRecentReviews(providerId, limit));
     }
 
 }
\ No newline at end of file
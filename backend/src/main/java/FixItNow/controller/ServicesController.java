@@ -1,9 +1,13 @@
 package FixItNow.controller;
 
+import FixItNow.manager.ProviderAvailabilityIndex;
+import FixItNow.manager.ProviderSearchIndex;
+import FixItNow.manager.ServiceSearchIndex;
 import FixItNow.manager.ServicesManager;
 import FixItNow.manager.UsersManager;
 import FixItNow.model.Services;
 import FixItNow.model.ServicesVerified;
+import FixItNow.model.TimeSlot;
 import FixItNow.model.Users;
 import FixItNow.model.UserRole;
 import FixItNow.repository.ServicesRepository;
@@ -16,9 +20,14 @@ import org.springframework.web.bind.annotation.*;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -37,6 +46,12 @@ public class ServicesController {
     private ServicesManager servicesManager;
     @Autowired
     private UsersRepository usersRepository;
+    @Autowired
+    private ProviderSearchIndex providerSearchIndex;
+    @Autowired
+    private ProviderAvailabilityIndex providerAvailabilityIndex;
+    @Autowired
+    private ServiceSearchIndex serviceSearchIndex;
 
     // Get all services
     @GetMapping
@@ -61,6 +76,105 @@ public class ServicesController {
         return usersRepository.findByRole(UserRole.PROVIDER);
     }
     
+    /**
+     * Faceted provider search:
+     * GET /service/search?category=Plumber,Electrician&subcategory=Tap Repair&verified=APPROVED&location=Hyderabad&op=or&page=0&size=20
+     * Facets are AND-ed together; values inside a facet are OR-ed (op=or, default) or AND-ed (op=and).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProviders(
+            @RequestParam(value = "category", required = false) List<String> category,
+            @RequestParam(value = "subcategory", required = false) List<String> subcategory,
+            @RequestParam(value = "verified", required = false) List<String> verified,
+            @RequestParam(value = "location", required = false) List<String> location,
+            @RequestParam(value = "op", defaultValue = "or") String op,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "facetLimit", defaultValue = "20") int facetLimit) {
+        if (!"or".equalsIgnoreCase(op) && !"and".equalsIgnoreCase(op)) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "op must be 'and' or 'or'"));
+        }
+        if (page < 0 || size < 1 || size > 100 || facetLimit < 0) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "page >= 0, 1 <= size <= 100 and facetLimit >= 0 required"));
+        }
+        Map<String, List<String>> filters = new HashMap<>();
+        filters.put(ProviderSearchIndex.CATEGORY, category);
+        filters.put(ProviderSearchIndex.SUBCATEGORY, subcategory);
+        filters.put(ProviderSearchIndex.VERIFIED, verified);
+        filters.put(ProviderSearchIndex.LOCATION, location);
+        return ResponseEntity.ok(providerSearchIndex.search(filters, "and".equalsIgnoreCase(op), page, size, facetLimit));
+    }
+
+    /**
+     * Full-text search over service category, subcategories and description:
+     * GET /service/fulltext?q=leaking%20kitchen%20tap&limit=20
+     */
+    @GetMapping("/fulltext")
+    public ResponseEntity<?> fullTextSearch(
+            @RequestParam(value = "q") String q,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (q.isBlank() || q.length() > 200) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "q must be 1-200 characters"));
+        }
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "limit must be between 1 and 100"));
+        }
+        try {
+            return ResponseEntity.ok(serviceSearchIndex.search(q, limit));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.singletonMap("message", "Search failed"));
+        }
+    }
+
+    // Rebuild the full-text index from the services table (admins only)
+    @PostMapping("/fulltext/reindex")
+    public ResponseEntity<?> rebuildFullTextIndex(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Collections.singletonMap("message", "Missing or invalid Authorization header"));
+        }
+        String email = usersManager.validateToken(authHeader.substring(7));
+        if ("401".equals(email)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Collections.singletonMap("message", "Token expired or invalid"));
+        }
+        Users user = usersManager.getUserByEmail(email);
+        if (user == null || user.getRole() != UserRole.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Collections.singletonMap("message", "Only admins can rebuild the search index"));
+        }
+        int indexed = serviceSearchIndex.reindex();
+        return ResponseEntity.ok(Map.of("indexed", indexed));
+    }
+
+    /**
+     * Verified providers free for the whole slot:
+     * GET /service/available?date=2025-11-04&timeSlot=14:00&category=Plumber  (or day=TUESDAY instead of date)
+     * timeSlot takes the same forms as bookings ("14:00" = a 2h booking, "14:00-15:30").
+     */
+    @GetMapping("/available")
+    public ResponseEntity<?> availableProviders(
+            @RequestParam(value = "date", required = false) String date,
+            @RequestParam(value = "day", required = false) String day,
+            @RequestParam(value = "timeSlot") String timeSlot,
+            @RequestParam(value = "category", required = false) String category) {
+        DayOfWeek dayOfWeek;
+        try {
+            dayOfWeek = date != null ? LocalDate.parse(date).getDayOfWeek()
+                    : day != null ? DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT)) : null;
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "Invalid date (yyyy-MM-dd) or day (MONDAY..SUNDAY)"));
+        }
+        if (dayOfWeek == null) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "date or day is required"));
+        }
+        TimeSlot slot = TimeSlot.tryParse(timeSlot);
+        if (slot == null) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "Invalid timeSlot. Use HH:mm or HH:mm-HH:mm"));
+        }
+        return ResponseEntity.ok(providerAvailabilityIndex.availableAt(dayOfWeek, slot, category));
+    }
+
     @PutMapping("/me")
     public ResponseEntity<?> updateService(@RequestHeader("Authorization") String authHeader, @RequestBody Map<String, Object> data) {
         String token = authHeader.substring(7);
@@ -73,6 +187,38 @@ public class ServicesController {
         servicesManager.updateServiceDetails(provider, data);
         return ResponseEntity.ok(Collections.singletonMap("message", "Service updated successfully"));
     }
+
+    /**
+     * Partial update of the caller's service: only the fields sent are compared and written.
+     * PATCH /service/me {"description": "...", "version": 3}  ->  {"message", "version", "changed": ["description"]}
+     * With "version" the update is refused (409) if the service changed since that version.
+     */
+    @PatchMapping("/me")
+    public ResponseEntity<?> patchService(@RequestHeader("Authorization") String authHeader, @RequestBody Map<String, Object> data) {
+        String token = authHeader.substring(7);
+        String email = usersManager.validateToken(token);
+        if ("401".equals(email)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Collections.singletonMap("message", "Token expired or invalid"));
+        }
+        Users provider = usersManager.getUserByEmail(email);
+        Long expectedVersion;
+        try {
+            expectedVersion = data.get("version") == null ? null : Long.valueOf(data.get("version").toString());
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "version must be a number"));
+        }
+        try {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.putAll(servicesManager.patchServiceDetails(provider, data, expectedVersion));
+            result.put("message", ((List<?>) result.get("changed")).isEmpty() ? "No changes" : "Service updated successfully");
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Collections.singletonMap("message", e.getMessage()));
+        }
+    }
     
     @GetMapping("/me")
     public ResponseEntity<?> getServiceDetails(@RequestHeader("Authorization") String authHeader) {
@@ -103,6 +249,7 @@ public class ServicesController {
         }
         
         response.put("category", service.getCategory());
+        response.put("version", service.getVersion());
 
         try {
             String subJson = service.getSubcategory();
@@ -131,12 +278,6 @@ public class ServicesController {
             return ResponseEntity.badRequest().body(Map.of("message", "Missing 'verified' in body"));
         }
 
-        Optional<Services> opt = servicesRepository.findById(id);
-        if (opt.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-        Services service = opt.get();
-
         ServicesVerified newStatus;
         if (verifiedObj instanceof Boolean) {
             boolean b = (Boolean) verifiedObj;
@@ -149,8 +290,10 @@ public class ServicesController {
             }
         }
 
-        service.setVerified(newStatus);
-        servicesRepository.save(service);
+        // through the manager so the provider directory is refreshed too
+        if (!servicesManager.updateVerified(id, newStatus)) {
+            return ResponseEntity.notFound().build();
+        }
 
         return ResponseEntity.ok(Map.of("id", id, "verified", newStatus.name()));
     }
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -25,9 +26,13 @@ import java.util.Optional;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ContentDisposition;
 
+import FixItNow.model.GeoPoint;
 import FixItNow.model.ProviderDocument;
 import FixItNow.repository.ProviderDocumentRepository;
 import FixItNow.manager.FileStorageService;
+import FixItNow.manager.ProviderDirectory;
+import FixItNow.manager.ProviderGeoIndex;
+import FixItNow.manager.ProviderRanking;
 import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.web.multipart.MultipartFile;
@@ -66,7 +71,18 @@ public class UsersController {
 	    @Autowired
 	    private FileStorageService fileStorageService;
 
+	    @Autowired
+	    private ProviderDirectory providerDirectory;
+
+	    @Autowired
+	    private ProviderGeoIndex providerGeoIndex;
+
+	    @Autowired
+	    private ProviderRanking providerRanking;
+
 	    private static final long MAX_BYTES = 5L * 1024L * 1024L; // 5MB
+	    private static final double MAX_NEARBY_RADIUS_KM = 500;
+	    private static final int MAX_PROVIDER_RESULTS = 100;
 	    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
 	    @PostMapping("/signin")
@@ -382,7 +398,7 @@ public class UsersController {
     }
     
     @PutMapping("/me/location")
-    public ResponseEntity<?> updateLocation(@RequestHeader("Authorization") String authHeader, @RequestBody Map<String, String> data) {
+    public ResponseEntity<?> updateLocation(@RequestHeader("Authorization") String authHeader, @RequestBody Map<String, Object> data) {
         String token = authHeader.substring(7);
         String email = usersManager.validateToken(token);
         if ("401".equals(email)) {
@@ -395,76 +411,61 @@ public class UsersController {
                 .body(Collections.singletonMap("message", "User not found"));
         }
 
-        String location = data.get("location");
+        String location = data.get("location") != null ? data.get("location").toString() : null;
         if (location == null || location.isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Collections.singletonMap("message", "Location is required"));
         }
-        user.setLocation(location);
-
-        usersRepository.save(user); 
+        GeoPoint point = null;
+        if (data.get("lat") != null && data.get("lng") != null) {
+            try {
+                point = new GeoPoint(Double.parseDouble(data.get("lat").toString()), Double.parseDouble(data.get("lng").toString()));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Collections.singletonMap("message", "Invalid lat/lng"));
+            }
+        }
+        usersManager.updateLocation(user, location, point);
         return ResponseEntity.ok(Collections.singletonMap("message", "Location updated successfully"));
     }
     
     
     @GetMapping("/providers")
     public ResponseEntity<?> getAllProviderProfiles() {
-        List<Users> providers = usersRepository.findByRole(UserRole.PROVIDER);
-
-        List<Map<String, Object>> responseList = new ArrayList<>();
-        for (Users user : providers) {
-            Map<String, Object> profile = new HashMap<>();
-            profile.put("id", user.getId()); 
-            profile.put("name", user.getName());
-            profile.put("location", user.getLocation());
-            profile.put("phone", user.getPhno());
-            profile.put("email", user.getEmail());
-
-            ObjectMapper mapper = new ObjectMapper();
-            
-            List<Services> servicesList = servicesRepository.findByProvider(user);
-            if (servicesList != null && !servicesList.isEmpty()) {
-                Services service = servicesList.get(0);
-
-                profile.put("description", service.getDescription() == null ? "" : service.getDescription());
-
-                try {
-                    String availJson = service.getAvailability();
-                    if (availJson == null || availJson.trim().isEmpty()) {
-                        profile.put("availability", new HashMap<String, Object>());
-                    } else {
-                        Map<String, Object> availability = mapper.readValue(availJson, new TypeReference<Map<String, Object>>() {});
-                        profile.put("availability", availability);
-                    }
-                } catch (Exception e) {
-                    profile.put("availability", new HashMap<String, Object>());
-                }
-
-                profile.put("category", service.getCategory() == null ? "" : service.getCategory());
-                profile.put("verified", service.getVerified() == null ? "" : service.getVerified());
-
-                try {
-                    String subJson = service.getSubcategory();
-                    if (subJson == null || subJson.trim().isEmpty()) {
-                        profile.put("subcategory", new HashMap<String, Object>());
-                    } else {
-                        Map<String, Object> subMap = mapper.readValue(subJson, new TypeReference<Map<String, Object>>() {});
-                        profile.put("subcategory", subMap);
-                    }
-                } catch (Exception e) {
-                    profile.put("subcategory", new HashMap<String, Object>());
-                }
-            } else {
-                profile.put("description", "");
-                profile.put("availability", new HashMap<String, Object>());
-                profile.put("category", "");
-                profile.put("verifed", "");
-                profile.put("subcategory", new HashMap<String, Object>());
-            }
+        // served from the in-memory snapshot; ServicesManager/UsersManager refresh it on every change
+        return ResponseEntity.ok(providerDirectory.snapshot().getViews());
+    }
+
+    // GET /users/providers/top?category=Plumber&limit=10 -> best-ranked providers first
+    @GetMapping("/providers/top")
+    public ResponseEntity<?> getTopProviders(@RequestParam(required = false) String category,
+                                             @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_PROVIDER_RESULTS) {
+            return ResponseEntity.badRequest()
+                .body(Collections.singletonMap("message", "limit must be between 1 and " + MAX_PROVIDER_RESULTS));
+        }
+        return ResponseEntity.ok(providerRanking.top(category, limit));
+    }
 
-            responseList.add(profile);
+    // GET /users/providers/nearby?lat=17.38&lng=78.48&radiusKm=10&k=20&category=Plumber
+    @GetMapping("/providers/nearby")
+    public ResponseEntity<?> getNearbyProviders(@RequestParam double lat,
+                                                @RequestParam double lng,
+                                                @RequestParam(defaultValue = "10") double radiusKm,
+                                                @RequestParam(defaultValue = "20") int k,
+                                                @RequestParam(required = false) String category) {
+        if (!GeoPoint.valid(lat, lng)) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "Invalid lat/lng"));
+        }
+        if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+            return ResponseEntity.badRequest()
+                .body(Collections.singletonMap("message", "radiusKm must be between 0 and " + MAX_NEARBY_RADIUS_KM));
+        }
+        if (k < 1 || k > MAX_PROVIDER_RESULTS) {
+            return ResponseEntity.badRequest()
+                .body(Collections.singletonMap("message", "k must be between 1 and " + MAX_PROVIDER_RESULTS));
         }
-        return ResponseEntity.ok(responseList);
+        return ResponseEntity.ok(providerGeoIndex.nearest(new GeoPoint(lat, lng), radiusKm, k, category));
     }
     
     
@@ -0,0 +1,101 @@
+package FixItNow.manager;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FixItNow.model.BookingStatus;
+import FixItNow.repository.ArchivedBookingRepository;
+import FixItNow.repository.BookingRepository;
+
+/**
+ * Moves finished bookings older than app.bookings.archive.after-days from
+ * bookings to booking_archive, so the hot table and its indexes only hold
+ * what dashboards normally show. Works like BookingExpiryJob: an id select,
+ * then INSERT ... SELECT plus DELETE for that chunk in one short transaction,
+ * with a pause between chunks.
+ */
+@Component
+public class BookingArchiver {
+    private static final Logger log = LoggerFactory.getLogger(BookingArchiver.class);
+
+    private static final Set<BookingStatus> FINISHED =
+            EnumSet.of(BookingStatus.COMPLETED, BookingStatus.CANCELLED, BookingStatus.EXPIRED);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archiveRepository;
+
+    @Value("${app.bookings.archive.after-days:180}")
+    private int afterDays;
+
+    @Value("${app.bookings.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.bookings.archive.pause-ms:200}")
+    private long pauseMillis;
+
+    @Value("${app.bookings.archive.max-batches:100}")
+    private int maxBatches;
+
+    private final TransactionTemplate tx;
+
+    public BookingArchiver(PlatformTransactionManager transactionManager) {
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${app.bookings.archive.initial-delay-ms:300000}",
+               fixedDelayString = "${app.bookings.archive.interval-ms:21600000}")
+    public void run() {
+        archive(LocalDate.now().minusDays(afterDays));
+    }
+
+    /**
+     * Archive finished bookings dated before the cutoff; returns the number of rows moved.
+     */
+    public int archive(LocalDate before) {
+        int moved = 0;
+        for (int batches = 0; batches < maxBatches; batches++) {
+            List<String> ids = bookingRepository.findArchivableIds(FINISHED, before, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) break;
+
+            Integer rows = tx.execute(status -> {
+                int copied = archiveRepository.copyFromBookings(ids);
+                bookingRepository.deleteByIds(ids);
+                return copied;
+            });
+            moved += rows == null ? 0 : rows;
+
+            if (ids.size() < batchSize) break;
+            if (!pause()) break;
+        }
+        if (moved > 0) {
+            log.info("moved {} bookings dated before {} to booking_archive", moved, before);
+        }
+        return moved;
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) return true;
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package FixItNow.manager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import FixItNow.model.BookingEvent;
+import FixItNow.repository.BookingEventRepository;
+import FixItNow.websocket.WebSocketSessionRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes booking_outbox rows to the provider and customer over their chat
+ * WebSocket as {"type":"booking","event":...,"bookingId":...,"status":...}.
+ * Runs on one background thread, woken after each committing change and
+ * polled on a timer as a safety net (restarts, missed wake-ups). A row is
+ * marked dispatched once both users received it; a user who is offline gets
+ * it on a later poll after reconnecting. Rows still undelivered after the
+ * delivery window are marked dispatched anyway, and that user sees the change
+ * on their next listing fetch.
+ */
+@Component
+public class BookingEventDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(BookingEventDispatcher.class);
+
+    @Autowired
+    private BookingEventRepository eventRepository;
+
+    @Autowired
+    private WebSocketSessionRegistry sessions;
+
+    @Value("${app.bookings.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.bookings.outbox.delivery-window-minutes:30}")
+    private long deliveryWindowMinutes;
+
+    @Value("${app.bookings.outbox.retention-hours:72}")
+    private long retentionHours;
+
+    private final TransactionTemplate tx;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "booking-outbox");
+        t.setDaemon(true);
+        return t;
+    });
+    // collapses bursts of nudges into one queued pass
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public BookingEventDispatcher(PlatformTransactionManager transactionManager) {
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    public void nudge() {
+        if (scheduled.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                scheduled.set(false);
+                dispatchPending();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.bookings.outbox.poll-ms:5000}")
+    public void poll() {
+        nudge();
+    }
+
+    @Scheduled(fixedDelayString = "${app.bookings.outbox.cleanup-ms:3600000}")
+    public void cleanup() {
+        tx.executeWithoutResult(s -> eventRepository.deleteDispatchedBefore(LocalDateTime.now().minusHours(retentionHours)));
+    }
+
+    private void dispatchPending() {
+        try {
+            long afterId = 0;
+            List<BookingEvent> events;
+            do {
+                events = eventRepository.findPending(afterId, PageRequest.of(0, batchSize));
+                if (events.isEmpty()) return;
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime giveUpBefore = now.minusMinutes(deliveryWindowMinutes);
+                List<Long> providerSent = new ArrayList<>();
+                List<Long> customerSent = new ArrayList<>();
+                List<Long> done = new ArrayList<>();
+                for (BookingEvent e : events) {
+                    String text = frame(e);
+                    boolean toProvider = e.getProviderSentAt() != null;
+                    if (!toProvider && sessions.send(e.getProviderId(), text)) {
+                        providerSent.add(e.getId());
+                        toProvider = true;
+                    }
+                    boolean toCustomer = e.getCustomerSentAt() != null;
+                    if (!toCustomer && sessions.send(e.getCustomerId(), text)) {
+                        customerSent.add(e.getId());
+                        toCustomer = true;
+                    }
+                    if ((toProvider && toCustomer) || e.getCreatedAt().isBefore(giveUpBefore)) {
+                        done.add(e.getId());
+                    }
+                    afterId = e.getId();
+                }
+                tx.executeWithoutResult(s -> {
+                    if (!providerSent.isEmpty()) eventRepository.markProviderSent(providerSent, now);
+                    if (!customerSent.isEmpty()) eventRepository.markCustomerSent(customerSent, now);
+                    if (!done.isEmpty()) eventRepository.markDispatched(done, now);
+                });
+            } while (events.size() == batchSize);
+        } catch (Exception e) {
+            // whatever was not marked is retried on the next poll
+            log.warn("Booking event dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private String frame(BookingEvent e) throws Exception {
+        ObjectNode out = mapper.createObjectNode();
+        out.put("type", "booking");
+        out.put("event", e.getType());
+        out.put("bookingId", e.getBookingId());
+        out.put("status", e.getStatus());
+        out.put("at", e.getCreatedAt() != null ? e.getCreatedAt().toString() : null);
+        return mapper.writeValueAsString(out);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,150 @@
+package FixItNow.manager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FixItNow.model.BookingEvent;
+import FixItNow.model.BookingStatus;
+import FixItNow.repository.BookingRepository;
+import FixItNow.repository.BookingSlotClaimRepository;
+
+/**
+ * Moves PENDING bookings whose date has passed to EXPIRED. Each chunk is one
+ * id select plus one bulk UPDATE in its own short transaction, with a pause
+ * in between, so the job never holds many row locks while customers book.
+ * The update re-checks PENDING: rows accepted or cancelled meanwhile are
+ * skipped and counted as conflicts. Expired bookings get an outbox event in
+ * the same transaction.
+ */
+@Component
+public class BookingExpiryJob {
+    private static final Logger log = LoggerFactory.getLogger(BookingExpiryJob.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingSlotIndex slotIndex;
+
+    @Autowired
+    private BookingSlotClaimRepository slotClaimRepository;
+
+    @Autowired
+    private BookingOutbox outbox;
+
+    @Value("${app.bookings.expiry.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.bookings.expiry.pause-ms:200}")
+    private long pauseMillis;
+
+    @Value("${app.bookings.expiry.max-batches:100}")
+    private int maxBatches;
+
+    private final TransactionTemplate tx;
+
+    private final AtomicLong totalExpired = new AtomicLong();
+    private final AtomicLong totalConflicts = new AtomicLong();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong lastRunExpired = new AtomicLong();
+    private final AtomicLong lastRunBatches = new AtomicLong();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+    private final AtomicLong lastRunFinishedAt = new AtomicLong();
+    // age in days of the oldest PENDING booking still overdue after the last run; 0 means caught up
+    private final AtomicLong lagDays = new AtomicLong();
+
+    public BookingExpiryJob(PlatformTransactionManager transactionManager) {
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${app.bookings.expiry.initial-delay-ms:60000}",
+               fixedDelayString = "${app.bookings.expiry.interval-ms:900000}")
+    public void run() {
+        expireOverdue(LocalDate.now());
+    }
+
+    /**
+     * One pass over bookings dated before today; returns the number of rows expired.
+     */
+    public int expireOverdue(LocalDate today) {
+        long started = System.currentTimeMillis();
+        int expired = 0;
+        int batches = 0;
+        while (batches < maxBatches) {
+            List<String> ids = bookingRepository.findOverduePendingIds(today, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) break;
+
+            Integer updated = tx.execute(status -> {
+                int n = bookingRepository.expirePending(ids);
+                if (n > 0) {
+                    slotClaimRepository.deleteReleased(ids);
+                    outbox.recordAll(ids, BookingEvent.EXPIRED, BookingStatus.EXPIRED);
+                }
+                return n;
+            });
+            int rows = updated == null ? 0 : updated;
+            expired += rows;
+            batches++;
+            totalExpired.addAndGet(rows);
+            totalConflicts.addAndGet(ids.size() - rows);
+
+            if (ids.size() < batchSize) break;
+            if (!pause()) break;
+        }
+
+        // past days can no longer be booked, so their in-memory slot maps are dead weight
+        slotIndex.evictBefore(today);
+
+        LocalDate oldest = bookingRepository.findOldestOverduePendingDate(today);
+        lagDays.set(oldest == null ? 0 : ChronoUnit.DAYS.between(oldest, today));
+        runs.incrementAndGet();
+        lastRunExpired.set(expired);
+        lastRunBatches.set(batches);
+        lastRunMillis.set(System.currentTimeMillis() - started);
+        lastRunFinishedAt.set(System.currentTimeMillis());
+        if (expired > 0) {
+            log.info("expired {} bookings in {} batches", expired, batches);
+        }
+        return expired;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("runs", runs.get());
+        m.put("totalExpired", totalExpired.get());
+        m.put("totalConflicts", totalConflicts.get());
+        m.put("lastRunExpired", lastRunExpired.get());
+        m.put("lastRunBatches", lastRunBatches.get());
+        m.put("lastRunMillis", lastRunMillis.get());
+        m.put("lastRunFinishedAt", lastRunFinishedAt.get());
+        m.put("lagDays", lagDays.get());
+        m.put("batchSize", batchSize);
+        m.put("pauseMs", pauseMillis);
+        return m;
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) return true;
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
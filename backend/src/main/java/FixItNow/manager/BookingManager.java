@@ -1,21 +1,43 @@
 package FixItNow.manager;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import FixItNow.model.BookedSlot;
 import FixItNow.model.Booking;
+import FixItNow.model.BookingEvent;
+import FixItNow.model.BookingExportRow;
+import FixItNow.model.BookingRef;
+import FixItNow.model.BookingSlotClaim;
 import FixItNow.model.BookingStatus;
+import FixItNow.model.CustomerBookingRow;
+import FixItNow.model.ProviderBookingRow;
+import FixItNow.model.TimeSlot;
 import FixItNow.model.Services;
 import FixItNow.model.Users;
+import FixItNow.model.WeeklyAvailability;
+import FixItNow.repository.ArchivedBookingRepository;
 import FixItNow.repository.BookingRepository;
+import FixItNow.repository.BookingSlotClaimRepository;
 import FixItNow.repository.ServicesRepository;
 import FixItNow.repository.UsersRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class BookingManager {
@@ -29,24 +51,38 @@ public class BookingManager {
     @Autowired
     private UsersRepository usersRepository;
 
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private BookingSlotIndex slotIndex;
+
+    @Autowired
+    private BookingSlotClaimRepository slotClaimRepository;
+
+    @Autowired
+    private BookingOutbox outbox;
+
+    @Autowired
+    private ArchivedBookingRepository archiveRepository;
+
+    @Autowired
+    private ProviderRanking providerRanking;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_CALENDAR_DAYS = 62;
+    private static final int MAX_BATCH_SIZE = 60;
+    private static final int EXPORT_FLUSH_EVERY = 500;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
-    /*Generate the next booking id based on the repository's maximum id.*/
- // Replace existing method in UsersManager
+
+    /*Generate the next booking id from the shared id sequence.*/
     public String generateNextBookingId() {
-        int max = 0;
-        // load all users (lightweight for modest user counts). If you prefer, add a repository query to return only ids.
-        for (Booking u : br.findAll()) {
-            String id = u.getId();
-            if (id != null && id.startsWith("B")) {
-                try {
-                    int n = Integer.parseInt(id.substring(1));
-                    if (n > max) max = n;
-                } catch (NumberFormatException ignored) {
-                    // ignore non-numeric suffixes
-                }
-            }
-        }
-        return "B" + (max + 1);
+        return idAllocator.next(IdAllocator.BOOKING);
     }
     
     
@@ -56,39 +92,203 @@ public class BookingManager {
         if (customerId == null || customerId.isBlank()) throw new IllegalArgumentException("customerId required");
         if (bookingDate == null) throw new IllegalArgumentException("bookingDate required");
         if (timeSlot == null || timeSlot.isBlank()) throw new IllegalArgumentException("timeSlot required");
+        TimeSlot slot = BookingSlotIndex.requireBookable(TimeSlot.parse(timeSlot));
 
         Users provider = usersRepository.findById(providerId).orElseThrow(() -> new IllegalArgumentException("provider not found"));
         Users customer = usersRepository.findById(customerId).orElseThrow(() -> new IllegalArgumentException("customer not found"));
+        Services service = firstServiceOf(provider);
+        if (!withinAvailability(service, bookingDate, slot)) {
+            throw new IllegalArgumentException("Provider is not available at that time");
+        }
+
+        Booking booking = newBooking(generateNextBookingId(), service, provider, customer,
+                toBookedServiceNode(bookedServiceObj), bookingDate, timeSlot, slot);
+
+        holdSlot(booking, slot);
+        claimSlot(booking);
+        Booking saved;
+        try {
+            saved = br.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            // another instance took an overlapping slot; the slot claims (or active_slot) caught it
+            throw new IllegalStateException("Provider already has a booking at this time");
+        }
+        recordEvent(saved, BookingEvent.CREATED);
+        return saved;
+    }
+
+    /**
+     * Create several bookings with the same provider in one transaction, e.g. a weekly job.
+     * items: [{"bookingDate": "yyyy-MM-dd", "timeSlot": "HH:mm"}, ...]
+     * atomic = true: nothing is created unless every item can be booked.
+     * atomic = false: the items that fit are created, the rest are reported.
+     * Returns {"created": n, "results": [{"index", "bookingDate", "timeSlot", "result", "bookingId" | "message"}]}.
+     */
+    @Transactional
+    public Map<String, Object> createBookingBatch(String providerId, String customerId, List<Map<String, Object>> items,
+                                                  Object bookedServiceObj, boolean atomic) {
+        if (providerId == null || providerId.isBlank()) throw new IllegalArgumentException("providerId required");
+        if (customerId == null || customerId.isBlank()) throw new IllegalArgumentException("customerId required");
+        if (items == null || items.isEmpty()) throw new IllegalArgumentException("items required");
+        if (items.size() > MAX_BATCH_SIZE) throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " items per batch");
 
-        // find first service for provider
+        // one lookup of provider, customer and service for the whole batch
+        Users provider = usersRepository.findById(providerId).orElseThrow(() -> new IllegalArgumentException("provider not found"));
+        Users customer = usersRepository.findById(customerId).orElseThrow(() -> new IllegalArgumentException("customer not found"));
+        Services service = firstServiceOf(provider);
+        JsonNode booked = toBookedServiceNode(bookedServiceObj);
+
+        List<Map<String, Object>> results = new ArrayList<>(items.size());
+        LocalDate[] dates = new LocalDate[items.size()];
+        TimeSlot[] slots = new TimeSlot[items.size()];
+        int valid = 0;
+        for (int i = 0; i < items.size(); i++) {
+            Map<String, Object> item = items.get(i) == null ? Collections.emptyMap() : items.get(i);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", i);
+            result.put("bookingDate", item.get("bookingDate"));
+            result.put("timeSlot", item.get("timeSlot"));
+            results.add(result);
+            try {
+                dates[i] = LocalDate.parse(String.valueOf(item.get("bookingDate")));
+            } catch (Exception e) {
+                result.put("result", "INVALID");
+                result.put("message", "Invalid bookingDate. Use yyyy-MM-dd");
+                continue;
+            }
+            slots[i] = item.get("timeSlot") == null ? null : TimeSlot.tryParse(item.get("timeSlot").toString());
+            if (slots[i] == null) {
+                dates[i] = null;
+                result.put("result", "INVALID");
+                result.put("message", "Invalid timeSlot. Use HH:mm or HH:mm-HH:mm");
+                continue;
+            }
+            try {
+                BookingSlotIndex.requireBookable(slots[i]);
+            } catch (IllegalArgumentException e) {
+                dates[i] = null;
+                result.put("result", "INVALID");
+                result.put("message", e.getMessage());
+                continue;
+            }
+            valid++;
+        }
+
+        // one id-block reservation for every item that parsed
+        Iterator<String> ids = idAllocator.nextBatch(IdAllocator.BOOKING, valid).iterator();
+        Booking[] held = new Booking[items.size()];
+        int accepted = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (dates[i] == null) continue;
+            if (!withinAvailability(service, dates[i], slots[i])) {
+                results.get(i).put("result", "UNAVAILABLE");
+                results.get(i).put("message", "Provider is not available at that time");
+                continue;
+            }
+            Booking booking = newBooking(ids.next(), service, provider, customer, booked,
+                    dates[i], items.get(i).get("timeSlot").toString(), slots[i]);
+            // earlier items of this batch are already in the index, so overlaps inside the batch are caught too
+            if (tryHoldSlot(booking, slots[i]) != null) {
+                results.get(i).put("result", "CONFLICT");
+                results.get(i).put("message", "Provider already has a booking at this time");
+                continue;
+            }
+            held[i] = booking;
+            accepted++;
+        }
+
+        if (atomic && accepted < items.size()) {
+            // give back what this call reserved; nothing has been written
+            for (int i = 0; i < held.length; i++) {
+                if (held[i] == null) continue;
+                slotIndex.release(providerId, held[i].getBookingDate(), held[i].getSlot(), held[i].getId());
+                results.get(i).put("result", "SKIPPED");
+            }
+            accepted = 0;
+        } else {
+            // persist (not merge) so Hibernate groups the inserts into JDBC batches without a select per row
+            List<String> createdIds = new ArrayList<>(accepted);
+            for (int i = 0; i < held.length; i++) {
+                if (held[i] == null) continue;
+                entityManager.persist(held[i]);
+                claimSlot(held[i]);
+                createdIds.add(held[i].getId());
+                results.get(i).put("result", "CREATED");
+                results.get(i).put("bookingId", held[i].getId());
+            }
+            try {
+                entityManager.flush();
+            } catch (PersistenceException e) {
+                throw new IllegalStateException("Provider already has a booking at one of these times");
+            }
+            outbox.recordAll(createdIds, BookingEvent.CREATED, BookingStatus.PENDING);
+        }
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("created", accepted);
+        out.put("results", results);
+        return out;
+    }
+
+    private void recordEvent(Booking b, String type) {
+        outbox.record(b.getId(), b.getProvider().getId(), b.getCustomer().getId(), type, b.getStatus().name());
+    }
+
+    private Services firstServiceOf(Users provider) {
+        // bookings are made against the provider's first service
         List<Services> servicesList = servicesRepository.findByProvider(provider);
         if (servicesList == null || servicesList.isEmpty()) {
             throw new IllegalArgumentException("no service found for provider");
         }
-        Services service = servicesList.get(0);
+        return servicesList.get(0);
+    }
 
+    // providers whose availability could not be compiled (none set, free text) are not restricted
+    private boolean withinAvailability(Services service, LocalDate date, TimeSlot slot) {
+        WeeklyAvailability mask = service.getAvailabilityMask();
+        return mask == null || mask.isEmpty() || mask.covers(date.getDayOfWeek(), slot);
+    }
+
+    private Booking newBooking(String id, Services service, Users provider, Users customer, JsonNode booked,
+                               LocalDate bookingDate, String timeSlot, TimeSlot slot) {
         Booking booking = new Booking();
-        booking.setId(generateNextBookingId());
+        booking.setId(id);
         booking.setService(service);
         booking.setProvider(provider);
         booking.setCustomer(customer);
-
-        // serialize bookedService object to JSON string for booked_service column
-        try {
-            String bookedJson = objectMapper.writeValueAsString(bookedServiceObj == null ? new Object() : bookedServiceObj);
-            booking.setBookedService(bookedJson);
-        } catch (JsonProcessingException e) {
-            // fallback to simple toString if serialization fails
-            booking.setBookedService(bookedServiceObj == null ? "{}" : bookedServiceObj.toString());
-        }
-
+        booking.setBookedService(booked);
         booking.setBookingDate(bookingDate);
         booking.setTimeSlot(timeSlot);
-
+        booking.setSlot(slot);
         // set status to pending when customer requests connection
         booking.setStatus(BookingStatus.PENDING);
+        return booking;
+    }
+
+    // Take the slot in the index (rejecting overlaps) and mark the row so the unique key guards it too.
+    // If the transaction rolls back the index entry is handed back.
+    private void holdSlot(Booking booking, TimeSlot slot) {
+        if (tryHoldSlot(booking, slot) != null) {
+            throw new IllegalStateException("Provider already has a booking at this time");
+        }
+    }
 
-        return br.save(booking);
+    // Returns the id of the conflicting booking, or null once the slot is held.
+    private String tryHoldSlot(Booking booking, TimeSlot slot) {
+        String providerId = booking.getProvider().getId();
+        LocalDate date = booking.getBookingDate();
+        String conflict = slotIndex.tryReserve(providerId, date, slot, booking.getId());
+        if (conflict != null) return conflict;
+        TransactionHooks.afterRollback(() -> slotIndex.release(providerId, date, slot, booking.getId()));
+        booking.setActiveSlot(BookingSlotIndex.slotKey(providerId, date, slot));
+        return null;
+    }
+
+    // Persist the booking_slot_claims rows of a booking being written; they are inserted at its flush.
+    private void claimSlot(Booking booking) {
+        for (String key : BookingSlotIndex.claimKeys(booking.getProvider().getId(), booking.getBookingDate(), booking.getSlot())) {
+            entityManager.persist(new BookingSlotClaim(key, booking.getId()));
+        }
     }
 
     /**
@@ -105,135 +305,207 @@ public class BookingManager {
     }
     
     
-    public List<Map<String, Object>> getBookingsForProvider(Users provider) {
-        if (provider == null) return Collections.emptyList();
-
-        List<Booking> bookings = br.findByProvider(provider);
-        if (bookings == null || bookings.isEmpty()) return Collections.emptyList();
-
-        List<Map<String, Object>> out = new ArrayList<>(bookings.size());
-
-        for (Booking b : bookings) {
-            Map<String, Object> item = new HashMap<>();
-
-            // customer info from users table
-            Users customer = b.getCustomer();
-            if (customer != null) {
-                // Adjust getter names if your Users entity uses different method names
-                item.put("customerName", customer.getName() != null ? customer.getName() : "");
-                item.put("customerEmail", customer.getEmail() != null ? customer.getEmail() : "");
-                // phone getter used in other places was getPhno()
-                String phone = null;
-                try {
-                    phone = customer.getPhno();
-                } catch (Throwable t) {
-                    // fallback if method name differs
-                    try { phone = customer.getPhno(); } catch (Throwable t2) { phone = null; }
-                }
-                item.put("customerPhone", phone != null ? phone : "");
-                item.put("customerLocation", customer.getLocation() != null ? customer.getLocation() : "");
-            } else {
-                item.put("customerName", "");
-                item.put("customerEmail", "");
-                item.put("customerPhone", "");
-                item.put("customerLocation", "");
-            }
+    /**
+     * One keyset page of the provider's bookings, newest bookingDate first.
+     * With includeHistory the page also draws from booking_archive; both tables use the
+     * same keyset order, so a cursor stays valid across them.
+     * Returns {"items": [...], "nextCursor": token or null}.
+     */
+    public Map<String, Object> getBookingPageForProvider(Users provider, BookingStatus status, LocalDate from, LocalDate to,
+                                                         String cursor, Integer limit, boolean includeHistory) {
+        if (provider == null) throw new IllegalArgumentException("provider must not be null");
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int size = pageSize(limit);
+        LocalDate afterDate = cursorDate(after);
+        String afterId = after == null ? null : after.getId();
+        List<ProviderBookingRow> rows = br.findProviderPage(provider.getId(), status, from, to,
+                afterDate, afterId, PageRequest.of(0, size + 1));
+        if (includeHistory) {
+            rows = newestFirst(rows, archiveRepository.findProviderPage(provider.getId(), status, from, to,
+                    afterDate, afterId, PageRequest.of(0, size + 1)),
+                    ProviderBookingRow::getBookingDate, ProviderBookingRow::getBookingId, size + 1);
+        }
+        return toPage(rows, size, this::toProviderItem,
+                last -> new KeysetCursor(last.getBookingDate().toString(), last.getBookingId()));
+    }
+
+    /**
+     * One keyset page of the customer's bookings, newest bookingDate first, optionally including the archive.
+     */
+    public Map<String, Object> getBookingPageForCustomer(Users customer, BookingStatus status, LocalDate from, LocalDate to,
+                                                         String cursor, Integer limit, boolean includeHistory) {
+        if (customer == null) throw new IllegalArgumentException("customer must not be null");
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int size = pageSize(limit);
+        LocalDate afterDate = cursorDate(after);
+        String afterId = after == null ? null : after.getId();
+        List<CustomerBookingRow> rows = br.findCustomerPage(customer.getId(), status, from, to,
+                afterDate, afterId, PageRequest.of(0, size + 1));
+        if (includeHistory) {
+            rows = newestFirst(rows, archiveRepository.findCustomerPage(customer.getId(), status, from, to,
+                    afterDate, afterId, PageRequest.of(0, size + 1)),
+                    CustomerBookingRow::getBookingDate, CustomerBookingRow::getBookingId, size + 1);
+        }
+        return toPage(rows, size, this::toCustomerItem,
+                last -> new KeysetCursor(last.getBookingDate().toString(), last.getBookingId()));
+    }
 
-            // booked services stored as JSON string in booking.booked_service
-            String bookedJson = b.getBookedService();
-            if (bookedJson == null || bookedJson.trim().isEmpty()) {
-                item.put("bookedServices", Collections.emptyMap());
+    // Merge two lists already sorted by (date, id) descending, keeping the first limit rows.
+    // A booking lives in exactly one of the tables, so there are no duplicates to drop.
+    private <T> List<T> newestFirst(List<T> hot, List<T> archived, Function<T, LocalDate> dateOf,
+                                    Function<T, String> idOf, int limit) {
+        if (archived.isEmpty()) return hot;
+        List<T> merged = new ArrayList<>(Math.min(limit, hot.size() + archived.size()));
+        int i = 0, j = 0;
+        while (merged.size() < limit && (i < hot.size() || j < archived.size())) {
+            if (j >= archived.size()) {
+                merged.add(hot.get(i++));
+            } else if (i >= hot.size()) {
+                merged.add(archived.get(j++));
             } else {
-                try {
-                    // deserialize into Map so frontend receives structured JSON
-                    Map<String, Object> bookedMap = objectMapper.readValue(bookedJson, new TypeReference<Map<String, Object>>() {});
-                    item.put("bookedServices", bookedMap);
-                } catch (Exception e) {
-                    // fallback: return raw string under a map key "raw"
-                    Map<String, Object> fallback = new HashMap<>();
-                    fallback.put("raw", bookedJson);
-                    item.put("bookedServices", fallback);
+                T a = hot.get(i);
+                T b = archived.get(j);
+                int cmp = dateOf.apply(a).compareTo(dateOf.apply(b));
+                if (cmp == 0) cmp = idOf.apply(a).compareTo(idOf.apply(b));
+                if (cmp >= 0) {
+                    merged.add(a);
+                    i++;
+                } else {
+                    merged.add(b);
+                    j++;
                 }
             }
+        }
+        return merged;
+    }
 
-            
-            // booking date and time slot
-            if (b.getBookingDate() != null) {
-                item.put("bookingDate", b.getBookingDate().toString()); // yyyy-MM-dd
-            } else {
-                item.put("bookingDate", "");
-            }
-            item.put("timeSlot", b.getTimeSlot() != null ? b.getTimeSlot() : "");
-            item.put("bookingId", b.getId() != null ? b.getId() : "");
-            
-            
-            try {
-                item.put("status", b.getStatus() != null ? b.getStatus().name() : "");
-            } catch (Throwable t) {
-                // safe fallback
-                item.put("status", "");
-            }
+    private int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        if (limit < 1) throw new IllegalArgumentException("limit must be at least 1");
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
 
-            
+    private LocalDate cursorDate(KeysetCursor after) {
+        if (after == null) return null;
+        try {
+            return LocalDate.parse(after.getKey());
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // rows holds up to size + 1 entries; the extra one only tells us another page exists
+    private <T> Map<String, Object> toPage(List<T> rows, int size, Function<T, Map<String, Object>> mapper,
+                                           Function<T, KeysetCursor> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> pageRows = hasMore ? rows.subList(0, size) : rows;
 
-            out.add(item);
+        List<Map<String, Object>> items = new ArrayList<>(pageRows.size());
+        for (T row : pageRows) {
+            items.add(mapper.apply(row));
         }
-        
-        return out;
+
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", items);
+        page.put("nextCursor", nextCursor);
+        return page;
     }
-    
-    
-    public List<Map<String, Object>> getBookingsForCustomer(Users customer) {
-        if (customer == null) return Collections.emptyList();
 
-        List<Booking> bookings = br.findByCustomer(customer);
-        if (bookings == null || bookings.isEmpty()) return Collections.emptyList();
+    private Map<String, Object> toProviderItem(ProviderBookingRow b) {
+        Map<String, Object> item = new HashMap<>();
 
-        List<Map<String, Object>> out = new ArrayList<>(bookings.size());
+        // customer info from the joined users row
+        item.put("customerName", b.getCustomerName() != null ? b.getCustomerName() : "");
+        item.put("customerEmail", b.getCustomerEmail() != null ? b.getCustomerEmail() : "");
+        item.put("customerPhone", b.getCustomerPhone() != null ? b.getCustomerPhone() : "");
+        item.put("customerLocation", b.getCustomerLocation() != null ? b.getCustomerLocation() : "");
 
-        for (Booking b : bookings) {
-            Map<String, Object> item = new HashMap<>();
+        item.put("bookedServices", bookedServicesOf(b.getBookedService()));
 
-            // booking id, date, time slot
-            item.put("bookingId", b.getId() != null ? b.getId() : "");
-            item.put("bookingDate", b.getBookingDate() != null ? b.getBookingDate().toString() : "");
-            item.put("timeSlot", b.getTimeSlot() != null ? b.getTimeSlot() : "");
+        // booking date and time slot
+        item.put("bookingDate", b.getBookingDate() != null ? b.getBookingDate().toString() : ""); // yyyy-MM-dd
+        item.put("timeSlot", b.getTimeSlot() != null ? b.getTimeSlot() : "");
+        item.put("bookingId", b.getBookingId() != null ? b.getBookingId() : "");
+        item.put("status", b.getStatus() != null ? b.getStatus().name() : "");
+        return item;
+    }
 
-            // booked services: stored as JSON string in booked_service column
-            String bookedJson = b.getBookedService();
-            if (bookedJson == null || bookedJson.trim().isEmpty() || "{}".equals(bookedJson.trim())) {
-                item.put("bookedServices", Collections.emptyMap());
-            } else {
-                try {
-                    Map<String, Object> bookedMap = objectMapper.readValue(bookedJson, new TypeReference<Map<String, Object>>() {});
-                    item.put("bookedServices", bookedMap);
-                } catch (Exception e) {
-                    // fallback: return raw string under key "raw"
-                    Map<String, Object> fallback = new HashMap<>();
-                    fallback.put("raw", bookedJson);
-                    item.put("bookedServices", fallback);
-                }
-            }
+    private Map<String, Object> toCustomerItem(CustomerBookingRow b) {
+        Map<String, Object> item = new HashMap<>();
 
-            // status
-            try {
-                item.put("status", b.getStatus() != null ? b.getStatus().name() : "");
-            } catch (Throwable t) {
-                item.put("status", "");
-            }
+        // booking id, date, time slot
+        item.put("bookingId", b.getBookingId() != null ? b.getBookingId() : "");
+        item.put("bookingDate", b.getBookingDate() != null ? b.getBookingDate().toString() : "");
+        item.put("timeSlot", b.getTimeSlot() != null ? b.getTimeSlot() : "");
 
-            // optionally include providerId (useful on frontend) - comment out if not wanted
-            if (b.getProvider() != null) {
-                item.put("providerId", b.getProvider().getId());
-            }
+        item.put("bookedServices", bookedServicesOf(b.getBookedService()));
+        item.put("status", b.getStatus() != null ? b.getStatus().name() : "");
 
-            out.add(item);
+        // providerId is used by the frontend to open the provider card
+        if (b.getProviderId() != null) {
+            item.put("providerId", b.getProviderId());
+        }
+        return item;
+    }
+
+    // booked services are already a parsed tree (JsonNodeConverter), so hand it to Jackson as-is
+    private Object bookedServicesOf(JsonNode booked) {
+        if (booked == null || booked.isNull() || booked.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return booked;
+    }
+
+    // convert the request payload into the tree stored in booking.booked_service
+    private JsonNode toBookedServiceNode(Object bookedServiceObj) {
+        if (bookedServiceObj == null) return objectMapper.createObjectNode();
+        try {
+            return objectMapper.valueToTree(bookedServiceObj);
+        } catch (IllegalArgumentException e) {
+            // fallback: keep the text under "raw" like the listings always did
+            ObjectNode fallback = objectMapper.createObjectNode();
+            fallback.put("raw", bookedServiceObj.toString());
+            return fallback;
         }
-        
-        return out;
     }
 
 
+    /**
+     * Slots the provider has taken between two dates (inclusive), optionally only those overlapping
+     * a time window. Each entry contains bookingDate, start and end (HH:mm) and status.
+     */
+    public List<Map<String, Object>> getBusySlots(String providerId, LocalDate from, LocalDate to, TimeSlot window) {
+        if (providerId == null || providerId.isBlank()) throw new IllegalArgumentException("providerId is required");
+        if (from == null) throw new IllegalArgumentException("date is required");
+        if (to == null) to = from;
+        if (to.isBefore(from)) throw new IllegalArgumentException("to must not be before date");
+        if (from.plusDays(MAX_CALENDAR_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Date range is limited to " + MAX_CALENDAR_DAYS + " days");
+        }
+
+        List<BookedSlot> rows;
+        if (window != null) {
+            if (!from.equals(to)) throw new IllegalArgumentException("A time window can only be used with a single date");
+            rows = br.findOverlapping(providerId, from, window.getStartMinute(), window.getEndMinute(), BookingSlotIndex.HOLDING);
+        } else {
+            rows = br.findCalendar(providerId, from, to, BookingSlotIndex.HOLDING);
+        }
+
+        List<Map<String, Object>> out = new ArrayList<>(rows.size());
+        for (BookedSlot row : rows) {
+            TimeSlot slot = row.toTimeSlot();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("bookingDate", row.getBookingDate().toString());
+            m.put("start", String.format("%02d:%02d", slot.getStartMinute() / 60, slot.getStartMinute() % 60));
+            m.put("end", String.format("%02d:%02d", slot.getEndMinute() / 60, slot.getEndMinute() % 60));
+            m.put("status", row.getStatus().name());
+            out.add(m);
+        }
+        return out;
+    }
+
     /**
      * Find booking by id.
      */
@@ -242,16 +514,63 @@ public class BookingManager {
     }
 
     /**
-     * Update booking status by string and persist.
+     * Write bookings matching the filters (all optional) to out as newline-delimited JSON,
+     * one flat BookingExportRow per line. Rows are streamed from the database and written
+     * as they arrive, so memory use does not depend on the number of bookings.
+     * Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long exportBookings(OutputStream out, LocalDate from, LocalDate to, BookingStatus status, String providerId) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setRootValueSeparator(null);
+        long count = 0;
+        try (Stream<BookingExportRow> rows = br.streamExport(from, to, status, providerId)) {
+            Iterator<BookingExportRow> it = rows.iterator();
+            while (it.hasNext()) {
+                writeExportRow(gen, it.next());
+                gen.writeRaw('\n');
+                if (++count % EXPORT_FLUSH_EVERY == 0) gen.flush();
+            }
+        }
+        gen.flush();
+        return count;
+    }
+
+    private void writeExportRow(JsonGenerator gen, BookingExportRow row) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("bookingId", row.getBookingId());
+        gen.writeStringField("bookingDate", row.getBookingDate() == null ? null : row.getBookingDate().toString());
+        gen.writeStringField("timeSlot", row.getTimeSlot());
+        gen.writeStringField("status", row.getStatus() == null ? null : row.getStatus().name());
+        gen.writeFieldName("bookedServices");
+        gen.writeObject(bookedServicesOf(row.getBookedService()));
+        gen.writeStringField("createdAt", row.getCreatedAt() == null ? null : row.getCreatedAt().toString());
+        gen.writeStringField("providerId", row.getProviderId());
+        gen.writeStringField("providerName", row.getProviderName());
+        gen.writeStringField("customerId", row.getCustomerId());
+        gen.writeStringField("customerName", row.getCustomerName());
+        gen.writeStringField("customerLocation", row.getCustomerLocation());
+        gen.writeStringField("serviceId", row.getServiceId());
+        gen.writeStringField("serviceCategory", row.getServiceCategory());
+        gen.writeEndObject();
+    }
+
+    public Optional<BookingRef> findRef(String id) {
+        return br.findRef(id);
+    }
+
+    /**
+     * Move a booking to a new status if BookingStatus allows it from its current one.
+     * The change is a single conditional UPDATE on the status the caller saw, so of two
+     * concurrent requests (accept vs cancel) exactly one wins; the other gets IllegalStateException.
      * Throws IllegalArgumentException on invalid status or if booking not found.
      */
     @Transactional
-    public Booking updateBookingStatusByString(String bookingId, String statusStr) {
+    public BookingStatus updateBookingStatusByString(String bookingId, String statusStr) {
         if (bookingId == null || bookingId.isBlank()) throw new IllegalArgumentException("bookingId is required");
         if (statusStr == null || statusStr.isBlank()) throw new IllegalArgumentException("status is required");
 
-        Booking booking = br.findById(bookingId).orElseThrow(() -> new IllegalArgumentException("Booking not found"));
-
         BookingStatus statusEnum;
         try {
             statusEnum = BookingStatus.valueOf(statusStr.trim().toUpperCase());
@@ -264,7 +583,34 @@ public class BookingManager {
             throw new IllegalArgumentException("Invalid status. Allowed values: " + allowed.toString());
         }
 
-        booking.setStatus(statusEnum);
-        return br.save(booking);
+        BookingRef ref = br.findRef(bookingId).orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+        BookingStatus previous = ref.getStatus();
+        if (previous == statusEnum) return previous;
+        if (!previous.canTransitionTo(statusEnum)) {
+            throw new IllegalStateException("Cannot change booking status from " + previous + " to " + statusEnum);
+        }
+
+        // no transition re-takes a slot (released statuses are final), so only the release case matters
+        boolean release = previous.holdsSlot() && !statusEnum.holdsSlot();
+        int updated = release
+                ? br.transitionAndRelease(bookingId, previous, statusEnum)
+                : br.transition(bookingId, previous, statusEnum);
+        if (updated == 0) {
+            throw new IllegalStateException("Booking status was changed by another request, reload and try again");
+        }
+        if (release) slotClaimRepository.deleteReleased(List.of(bookingId));
+        outbox.record(bookingId, ref.getProviderId(), ref.getCustomerId(), BookingEvent.STATUS_CHANGED, statusEnum.name());
+
+        TimeSlot slot = ref.toTimeSlot();
+        if (release && slot != null) {
+            String providerId = ref.getProviderId();
+            LocalDate date = ref.getBookingDate();
+            TransactionHooks.afterCommit(() -> slotIndex.release(providerId, date, slot, bookingId));
+        }
+        if (statusEnum == BookingStatus.COMPLETED) {
+            String providerId = ref.getProviderId();
+            TransactionHooks.afterCommit(() -> providerRanking.bookingCompleted(providerId));
+        }
+        return statusEnum;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package FixItNow.manager;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import FixItNow.model.BookingEvent;
+import FixItNow.model.BookingStatus;
+import FixItNow.repository.BookingEventRepository;
+
+/**
+ * Records booking changes in booking_outbox. Must be called inside the
+ * transaction making the change, so an event exists exactly when the change
+ * committed; the dispatcher is woken once that commit happened.
+ */
+@Component
+public class BookingOutbox {
+
+    @Autowired
+    private BookingEventRepository eventRepository;
+
+    @Autowired
+    private BookingEventDispatcher dispatcher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String bookingId, String providerId, String customerId, String type, String status) {
+        eventRepository.save(new BookingEvent(bookingId, providerId, customerId, type, status));
+        TransactionHooks.afterCommit(dispatcher::nudge);
+    }
+
+    /**
+     * One INSERT ... SELECT for many bookings that are now in the given status
+     * (batch creation, expiry); rows in another status are skipped.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<String> bookingIds, String type, BookingStatus status) {
+        if (bookingIds.isEmpty()) return;
+        if (eventRepository.recordFor(bookingIds, type, status.name()) > 0) {
+            TransactionHooks.afterCommit(dispatcher::nudge);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package FixItNow.manager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import FixItNow.model.BookedSlot;
+import FixItNow.model.BookingSlotClaim;
+import FixItNow.model.BookingStatus;
+import FixItNow.model.TimeSlot;
+import FixItNow.repository.BookingRepository;
+
+/**
+ * In-memory view of the slots each provider has taken on each day, so
+ * createBooking can reject overlaps without a range query per request.
+ * A day is loaded from the database the first time it is touched; after that
+ * BookingManager keeps it current. Held intervals never overlap, so a TreeMap
+ * keyed by start minute answers "is this slot free" with a floor and a
+ * ceiling lookup. Across app instances the database decides: each held
+ * booking claims every half hour it covers in booking_slot_claims (see
+ * claimKeys), so overlapping bookings cannot both commit. Both checks use the
+ * same rule: a booking takes whole half hours. New slots must be aligned to
+ * them (requireBookable), and slots of older rows count as the half hours
+ * they touch (claimedSpan), here as well as in their claims.
+ */
+@Component
+public class BookingSlotIndex {
+
+    public static final Set<BookingStatus> HOLDING;
+    static {
+        Set<BookingStatus> holding = EnumSet.noneOf(BookingStatus.class);
+        for (BookingStatus s : BookingStatus.values()) {
+            if (s.holdsSlot()) holding.add(s);
+        }
+        HOLDING = Collections.unmodifiableSet(holding);
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final ConcurrentMap<DayKey, Day> days = new ConcurrentHashMap<>();
+
+    /**
+     * Value stored in bookings.active_slot while a booking holds its slot.
+     * Unique, but only rejects bookings with the same start; overlaps are caught by the claims.
+     */
+    public static String slotKey(String providerId, LocalDate date, TimeSlot slot) {
+        return providerId + "|" + date + "|" + slot.getStartMinute();
+    }
+
+    /**
+     * Reject slots that do not start and end on the half-hour grid bookings are claimed on.
+     */
+    public static TimeSlot requireBookable(TimeSlot slot) {
+        if (!slot.isAlignedTo(BookingSlotClaim.BUCKET_MINUTES)) {
+            throw new IllegalArgumentException("timeSlot must start and end on the hour or half hour");
+        }
+        return slot;
+    }
+
+    /**
+     * The half hours a held slot takes; the same span whether checked here or by its claims.
+     */
+    public static TimeSlot claimedSpan(TimeSlot slot) {
+        return slot.snappedTo(BookingSlotClaim.BUCKET_MINUTES);
+    }
+
+    /**
+     * Primary keys of the booking_slot_claims rows for slot: one per half hour it covers.
+     */
+    public static List<String> claimKeys(String providerId, LocalDate date, TimeSlot slot) {
+        return claimKeys(providerId, date, slot.getStartMinute(), slot.getEndMinute());
+    }
+
+    public static List<String> claimKeys(String providerId, LocalDate date, int startMinute, int endMinute) {
+        int first = startMinute / BookingSlotClaim.BUCKET_MINUTES;
+        int last = (endMinute - 1) / BookingSlotClaim.BUCKET_MINUTES;
+        List<String> keys = new ArrayList<>(last - first + 1);
+        for (int bucket = first; bucket <= last; bucket++) {
+            keys.add(providerId + "|" + date + "|" + bucket);
+        }
+        return keys;
+    }
+
+    /**
+     * Atomically check the provider's day and take the slot for bookingId.
+     * Returns null on success, otherwise the id of the booking already holding an overlapping slot.
+     */
+    public String tryReserve(String providerId, LocalDate date, TimeSlot slot, String bookingId) {
+        Day day = days.computeIfAbsent(new DayKey(providerId, date), k -> new Day());
+        synchronized (day) {
+            if (!day.loaded) load(day, providerId, date);
+            String conflict = day.conflictWith(slot);
+            if (conflict != null) return conflict;
+            day.slots.put(slot.getStartMinute(), new Held(bookingId, slot));
+            return null;
+        }
+    }
+
+    /**
+     * Give a slot back (booking cancelled/completed, or its transaction rolled back).
+     */
+    public void release(String providerId, LocalDate date, TimeSlot slot, String bookingId) {
+        Day day = days.get(new DayKey(providerId, date));
+        if (day == null) return;
+        synchronized (day) {
+            Held held = day.slots.get(slot.getStartMinute());
+            if (held != null && held.bookingId.equals(bookingId)) {
+                day.slots.remove(slot.getStartMinute());
+            }
+        }
+    }
+
+    /**
+     * Drop days before the given date; nobody can book them any more.
+     */
+    public int evictBefore(LocalDate date) {
+        int before = days.size();
+        days.keySet().removeIf(k -> k.date.isBefore(date));
+        return before - days.size();
+    }
+
+    private void load(Day day, String providerId, LocalDate date) {
+        for (BookedSlot row : bookingRepository.findSlotsOnDay(providerId, date, HOLDING)) {
+            TimeSlot slot = row.toTimeSlot();
+            Held existing = day.slots.get(slot.getStartMinute());
+            if (existing == null || existing.slot.getEndMinute() < slot.getEndMinute()) {
+                day.slots.put(slot.getStartMinute(), new Held(row.getBookingId(), slot));
+            }
+        }
+        day.loaded = true;
+    }
+
+    private static final class Day {
+        final TreeMap<Integer, Held> slots = new TreeMap<>();
+        boolean loaded;
+
+        // held spans never overlap, so ordering by start is the same for slots and spans
+        String conflictWith(TimeSlot slot) {
+            TimeSlot span = claimedSpan(slot);
+            Map.Entry<Integer, Held> before = slots.floorEntry(slot.getStartMinute());
+            if (before != null && claimedSpan(before.getValue().slot).overlaps(span)) return before.getValue().bookingId;
+            Map.Entry<Integer, Held> after = slots.ceilingEntry(slot.getStartMinute());
+            if (after != null && claimedSpan(after.getValue().slot).overlaps(span)) return after.getValue().bookingId;
+            return null;
+        }
+    }
+
+    private static final class Held {
+        final String bookingId;
+        final TimeSlot slot;
+
+        Held(String bookingId, TimeSlot slot) {
+            this.bookingId = bookingId;
+            this.slot = slot;
+        }
+    }
+
+    private static final class DayKey {
+        final String providerId;
+        final LocalDate date;
+
+        DayKey(String providerId, LocalDate date) {
+            this.providerId = providerId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof DayKey)) return false;
+            DayKey other = (DayKey) o;
+            return providerId.equals(other.providerId) && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(providerId, date);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package FixItNow.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FixItNow.repository.ArchivedBookingRepository;
+import FixItNow.repository.BookingRepository;
+import FixItNow.repository.IdSequenceRepository;
+import FixItNow.repository.ReviewsRepository;
+import FixItNow.repository.ServicesRepository;
+import FixItNow.repository.UsersRepository;
+
+/**
+ * Hands out "U123"-style ids from the id_sequences table in blocks (hi/lo).
+ * Ids inside a block are taken with a single getAndIncrement, so only the
+ * thread that exhausts a block talks to the database. Unused ids of the last
+ * block are lost on restart, which leaves gaps but never duplicates.
+ */
+@Component
+public class IdAllocator {
+
+    public static final String USER = "U";
+    public static final String BOOKING = "B";
+    public static final String SERVICE = "S";
+    public static final String REVIEW = "R";
+
+    @Autowired
+    private IdSequenceRepository sequenceRepository;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archiveRepository;
+
+    @Autowired
+    private ServicesRepository servicesRepository;
+
+    @Autowired
+    private ReviewsRepository reviewsRepository;
+
+    @Value("${app.ids.block-size:20}")
+    private int blockSize;
+
+    private final ConcurrentMap<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+    private final TransactionTemplate tx;
+
+    public IdAllocator(PlatformTransactionManager transactionManager) {
+        // reservations commit on their own so a rolled back caller never hands an id out twice
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Next id for the prefix, e.g. next("B") -> "B124".
+     */
+    public String next(String prefix) {
+        Sequence seq = sequences.computeIfAbsent(prefix, Sequence::new);
+        while (true) {
+            Block block = seq.current;
+            if (block != null) {
+                long n = block.next.getAndIncrement();
+                if (n < block.end) return prefix + n;
+            }
+            refill(seq, block);
+        }
+    }
+
+    /**
+     * Reserve count consecutive ids with one round trip, independent of the shared block.
+     */
+    public List<String> nextBatch(String prefix, int count) {
+        if (count <= 0) return new ArrayList<>();
+        Sequence seq = sequences.computeIfAbsent(prefix, Sequence::new);
+        long start = reserve(seq, count);
+        List<String> ids = new ArrayList<>(count);
+        for (long n = start; n < start + count; n++) {
+            ids.add(prefix + n);
+        }
+        return ids;
+    }
+
+    private void refill(Sequence seq, Block exhausted) {
+        synchronized (seq) {
+            // another thread already swapped in a fresh block
+            if (seq.current != exhausted) return;
+            long start = reserve(seq, blockSize);
+            seq.current = new Block(start, start + blockSize);
+        }
+    }
+
+    private long reserve(Sequence seq, long size) {
+        Long start = tx.execute(status -> {
+            if (!seq.seeded) {
+                // pick up from ids that already exist in the table (first use after startup)
+                sequenceRepository.seed(seq.prefix, currentMax(seq.prefix) + 1);
+            }
+            sequenceRepository.advance(seq.prefix, size);
+            Long nextValue = sequenceRepository.findNextValue(seq.prefix);
+            return nextValue - size;
+        });
+        seq.seeded = true;
+        return start;
+    }
+
+    private long currentMax(String prefix) {
+        Long max;
+        switch (prefix) {
+            case USER:
+                max = usersRepository.findMaxUserNumber();
+                break;
+            case BOOKING:
+                // archived bookings keep their ids, so they count too
+                max = Math.max(bookingRepository.findMaxBookingNumber(), archiveRepository.findMaxBookingNumber());
+                break;
+            case SERVICE:
+                max = servicesRepository.findMaxServiceNumber();
+                break;
+            case REVIEW:
+                max = reviewsRepository.findMaxReviewsNumber();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown id prefix: " + prefix);
+        }
+        return max == null ? 0 : max;
+    }
+
+    private static final class Sequence {
+        final String prefix;
+        volatile Block current;
+        volatile boolean seeded;
+
+        Sequence(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    private static final class Block {
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package FixItNow.manager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Remembers the response to each (user, Idempotency-Key) pair so a retried
+ * POST gets the first answer back instead of running again. A duplicate that
+ * arrives while the first request is still running waits for its result.
+ * Entries live for app.idempotency.ttl-seconds, the map is capped at
+ * app.idempotency.max-entries (oldest finished entries dropped first; new keys
+ * are refused while every entry is still running), and 5xx answers are not
+ * kept so the client can retry. Memory only: keys do not survive a restart.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    @Value("${app.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${app.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.idempotency.wait-ms:10000}")
+    private long waitMillis;
+
+    private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+
+    // insertion order == creation order, so expired entries are always at the head
+    // (with any in-flight ones among them left in place)
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Run action once per scope + key. fingerprint identifies the request body; reusing a
+     * key for a different body is answered with 422 instead of the stored response.
+     */
+    public ResponseEntity<?> execute(String scope, String key, String fingerprint, Supplier<ResponseEntity<?>> action) {
+        if (key.length() > 255) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", HEADER + " must be at most 255 characters"));
+        }
+        String id = scope + "|" + key;
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            evictExpired(now);
+            entry = entries.get(id);
+            if (entry == null) {
+                // an in-flight entry is never dropped, or a retry of it would run the action a second time
+                if (entries.size() >= maxEntries && !evictCompleted(entries.size() - maxEntries + 1)) {
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .body(Collections.singletonMap("message", "Too many requests in progress, please retry"));
+                }
+                entry = new Entry(fingerprint, now);
+                entries.put(id, entry);
+                owner = true;
+            }
+        }
+
+        if (!owner) {
+            if (!entry.fingerprint.equals(fingerprint)) {
+                return ResponseEntity.unprocessableEntity()
+                        .body(Collections.singletonMap("message", HEADER + " was already used for a different request"));
+            }
+            return replay(entry);
+        }
+
+        try {
+            ResponseEntity<?> response = action.get();
+            if (response.getStatusCode().is5xxServerError()) forget(id, entry);
+            entry.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            forget(id, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> replay(Entry entry) {
+        try {
+            ResponseEntity<?> first = entry.response.get(waitMillis, TimeUnit.MILLISECONDS);
+            return ResponseEntity.status(first.getStatusCode())
+                    .headers(first.getHeaders())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(first.getBody());
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Collections.singletonMap("message", "A request with this " + HEADER + " is still in progress"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Collections.singletonMap("message", "Interrupted"));
+        } catch (ExecutionException e) {
+            // the first attempt failed and was forgotten; this one may simply be retried
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Collections.singletonMap("message", "The original request failed, please retry"));
+        }
+    }
+
+    private void forget(String id, Entry entry) {
+        synchronized (entries) {
+            entries.remove(id, entry);
+        }
+    }
+
+    // Drop expired entries that have finished; like evictCompleted, an in-flight one stays until it completes
+    private void evictExpired(long now) {
+        long cutoff = now - TimeUnit.SECONDS.toMillis(ttlSeconds);
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry e = it.next();
+            if (e.createdAt >= cutoff) break;
+            if (e.response.isDone()) it.remove();
+        }
+    }
+
+    // Drop up to count finished entries, oldest first; false if fewer than count could go
+    private boolean evictCompleted(int count) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (count > 0 && it.hasNext()) {
+            if (it.next().response.isDone()) {
+                it.remove();
+                count--;
+            }
+        }
+        return count == 0;
+    }
+
+    /**
+     * SHA-256 of the body as canonical JSON (object keys sorted), so equal bodies match
+     * whatever the key order and different bodies practically never do.
+     */
+    public static String fingerprintOf(Object body) {
+        try {
+            byte[] json = CANONICAL_JSON.writeValueAsBytes(body);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request body", e);
+        }
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final long createdAt;
+        final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        Entry(String fingerprint, long createdAt) {
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package FixItNow.manager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque "next page" token for keyset pagination: the sort key and id of the
+ * last row of a page, base64url encoded so clients just echo it back.
+ */
+public final class KeysetCursor {
+
+    private final String key;
+    private final String id;
+
+    public KeysetCursor(String key, String id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a null/blank token, throws IllegalArgumentException for a malformed one.
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int sep = raw.lastIndexOf('|');
+        if (sep <= 0 || sep == raw.length() - 1) throw new IllegalArgumentException("Invalid cursor");
+        return new KeysetCursor(raw.substring(0, sep), raw.substring(sep + 1));
+    }
+}
@@ -1,9 +1,24 @@
 package FixItNow.manager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import FixItNow.model.Conversation;
+import FixItNow.model.ConversationSummary;
 import FixItNow.model.Message;
+import FixItNow.model.MessageDTO;
 import FixItNow.model.Users;
+import FixItNow.repository.ConversationRepository;
 import FixItNow.repository.MessageRepository;
 import FixItNow.repository.UsersRepository;
 
@@ -16,10 +31,18 @@ public class MessageManager {
     @Autowired
     private UsersRepository usersRepository;
 
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    private static final int DEFAULT_HISTORY_SIZE = 50;
+    private static final int MAX_HISTORY_SIZE = 100;
+
     /**
-     * Persist a message given senderId, receiverId and content.
+     * Persist a message given senderId, receiverId and content, and move the pair's
+     * conversation row (the inbox entry) to it.
      * Returns the saved Message entity with id and sentAt.
      */
+    @Transactional
     public Message saveMessage(String senderId, String receiverId, String content) {
         Users sender = usersRepository.findById(senderId).orElse(null);
         Users receiver = usersRepository.findById(receiverId).orElse(null);
@@ -31,8 +54,96 @@ public class MessageManager {
         
         System.out.println("[MessageManager] saveMessage senderId=" + senderId + " receiverId=" + receiverId + " content=" + content);
 
-        return messageRepository.save(msg);
-        
-       
+        // flushed so sentAt is set for the conversation row
+        Message saved = messageRepository.saveAndFlush(msg);
+        if (sender != null && receiver != null) {
+            Conversation c = new Conversation(sender, receiver, saved.getId(), content, saved.getSentAt());
+            conversationRepository.recordMessage(c.getUserLow(), c.getUserHigh(), c.getLowName(), c.getHighName(),
+                    c.getLastMessageId(), c.getLastMessage(), c.getLastAt());
+        }
+        return saved;
+    }
+
+    /**
+     * The user's conversations, newest first, one per peer.
+     */
+    public List<ConversationSummary> getConversations(String userId) {
+        return conversationRepository.findInbox(userId);
+    }
+
+    /**
+     * One page of the conversation between userA and userB, in chronological order.
+     * Without cursors it is the newest limit messages; before pages back, after pages forward.
+     * Returns {"items": [MessageDTO], "before": cursor for older messages or null, "after": cursor for newer ones}.
+     */
+    public Map<String, Object> getHistoryPage(String userA, String userB, String before, String after, Integer limit) {
+        if (before != null && after != null) throw new IllegalArgumentException("Use either before or after, not both");
+        int size = limit == null ? DEFAULT_HISTORY_SIZE : limit;
+        if (size < 1) throw new IllegalArgumentException("limit must be at least 1");
+        size = Math.min(size, MAX_HISTORY_SIZE);
+
+        KeysetCursor afterCursor = KeysetCursor.decode(after);
+        List<MessageDTO> items;
+        boolean olderExist;
+        if (afterCursor != null) {
+            LocalDateTime afterAt = sentAtOf(afterCursor);
+            PageRequest page = PageRequest.of(0, size);
+            items = merge(messageRepository.findDirectionAfter(userA, userB, afterAt, afterCursor.getId(), page),
+                    messageRepository.findDirectionAfter(userB, userA, afterAt, afterCursor.getId(), page),
+                    OLDEST_FIRST, size);
+            // the cursor itself was the newest message we had; whatever is before it exists
+            olderExist = true;
+        } else {
+            KeysetCursor beforeCursor = KeysetCursor.decode(before);
+            // the extra row only tells us older messages exist
+            PageRequest page = PageRequest.of(0, size + 1);
+            List<MessageDTO> newestFirst;
+            if (beforeCursor == null) {
+                newestFirst = merge(messageRepository.findDirectionLatest(userA, userB, page),
+                        messageRepository.findDirectionLatest(userB, userA, page), NEWEST_FIRST, size + 1);
+            } else {
+                LocalDateTime beforeAt = sentAtOf(beforeCursor);
+                newestFirst = merge(messageRepository.findDirectionBefore(userA, userB, beforeAt, beforeCursor.getId(), page),
+                        messageRepository.findDirectionBefore(userB, userA, beforeAt, beforeCursor.getId(), page),
+                        NEWEST_FIRST, size + 1);
+            }
+            olderExist = newestFirst.size() > size;
+            items = new ArrayList<>(olderExist ? newestFirst.subList(0, size) : newestFirst);
+            Collections.reverse(items);
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", items);
+        page.put("before", olderExist && !items.isEmpty() ? cursorOf(items.get(0)) : null);
+        page.put("after", items.isEmpty() ? after : cursorOf(items.get(items.size() - 1)));
+        return page;
+    }
+
+    private static final Comparator<MessageDTO> OLDEST_FIRST =
+            Comparator.comparing((MessageDTO m) -> m.sentAt).thenComparing(m -> m.id);
+    private static final Comparator<MessageDTO> NEWEST_FIRST = OLDEST_FIRST.reversed();
+
+    // the first limit messages of two lists each already sorted by order
+    private static List<MessageDTO> merge(List<MessageDTO> x, List<MessageDTO> y, Comparator<MessageDTO> order, int limit) {
+        List<MessageDTO> out = new ArrayList<>(Math.min(limit, x.size() + y.size()));
+        int i = 0;
+        int j = 0;
+        while (out.size() < limit && (i < x.size() || j < y.size())) {
+            if (j >= y.size() || (i < x.size() && order.compare(x.get(i), y.get(j)) <= 0)) out.add(x.get(i++));
+            else out.add(y.get(j++));
+        }
+        return out;
+    }
+
+    private static String cursorOf(MessageDTO m) {
+        return new KeysetCursor(m.sentAt.toString(), m.id).encode();
+    }
+
+    private static LocalDateTime sentAtOf(KeysetCursor cursor) {
+        try {
+            return LocalDateTime.parse(cursor.getKey());
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
-}
\ No newline at end of file
+}
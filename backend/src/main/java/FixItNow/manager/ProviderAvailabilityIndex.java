@@ -0,0 +1,119 @@
+package FixItNow.manager;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import FixItNow.model.ProviderProfile;
+import FixItNow.model.ServicesVerified;
+import FixItNow.model.TimeSlot;
+import FixItNow.model.WeeklyAvailability;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The providers' weekly availability turned sideways: for each half hour of
+ * the week a BitSet of the (verified) providers free then. "Who is free on
+ * Tuesday 14:00-16:00" is the AND of four BitSets, whatever the number of
+ * providers. Providers without a usable availability are left out. Kept
+ * current through ProviderDirectoryListener.
+ */
+@Component
+public class ProviderAvailabilityIndex implements ProviderDirectoryListener {
+
+    @Autowired
+    private ProviderDirectory directory;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // all guarded by lock
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final List<ProviderProfile> docs = new ArrayList<>();
+    private final BitSet[] freeAt = new BitSet[WeeklyAvailability.SLOTS_PER_WEEK];
+
+    @PostConstruct
+    void register() {
+        for (int i = 0; i < freeAt.length; i++) freeAt[i] = new BitSet();
+        directory.addListener(this);
+    }
+
+    @Override
+    public void directoryLoaded(ProviderDirectory.Snapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            docIds.clear();
+            docs.clear();
+            for (BitSet b : freeAt) b.clear();
+            for (ProviderProfile p : snapshot.getProfiles()) index(p);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void providerChanged(ProviderProfile before, ProviderProfile after) {
+        lock.writeLock().lock();
+        try {
+            if (before != null) unindex(before);
+            if (after != null) index(after);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Views of the verified providers free for the whole slot on that day, optionally only in category.
+     */
+    public List<Map<String, Object>> availableAt(DayOfWeek day, TimeSlot slot, String category) {
+        directory.snapshot(); // builds the directory (and this index) on first use
+        String wanted = category == null || category.isBlank() ? null : ProviderSearchIndex.normalize(category);
+
+        lock.readLock().lock();
+        try {
+            int[] slots = WeeklyAvailability.slotsOf(day, slot);
+            BitSet result = (BitSet) freeAt[slots[0]].clone();
+            for (int i = 1; i < slots.length && !result.isEmpty(); i++) {
+                result.and(freeAt[slots[i]]);
+            }
+            List<Map<String, Object>> out = new ArrayList<>(result.cardinality());
+            for (int doc = result.nextSetBit(0); doc >= 0; doc = result.nextSetBit(doc + 1)) {
+                ProviderProfile p = docs.get(doc);
+                if (wanted != null && !wanted.equals(ProviderSearchIndex.normalize(p.getCategory()))) continue;
+                out.add(p.asView());
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // keeps the provider's doc number on updates so result order stays stable
+    private void index(ProviderProfile p) {
+        WeeklyAvailability week = p.getWeeklyAvailability();
+        if (week.isEmpty() || p.getVerified() != ServicesVerified.APPROVED) return;
+        Integer doc = docIds.get(p.getId());
+        if (doc == null) {
+            doc = docs.size();
+            docs.add(p);
+            docIds.put(p.getId(), doc);
+        } else {
+            docs.set(doc, p);
+        }
+        for (int i = 0; i < freeAt.length; i++) {
+            if (week.isSet(i)) freeAt[i].set(doc);
+        }
+    }
+
+    private void unindex(ProviderProfile p) {
+        Integer doc = docIds.get(p.getId());
+        if (doc == null) return;
+        for (BitSet b : freeAt) b.clear(doc);
+    }
+}
@@ -0,0 +1,172 @@
+package FixItNow.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import FixItNow.model.ProviderProfile;
+import FixItNow.model.Services;
+import FixItNow.model.UserRole;
+import FixItNow.model.Users;
+import FixItNow.model.WeeklyAvailability;
+import FixItNow.repository.ServicesRepository;
+import FixItNow.repository.UsersRepository;
+
+/**
+ * In-memory snapshot of all provider profiles behind GET /users/providers.
+ * The snapshot is immutable and replaced as a whole (copy-on-write), so
+ * readers never lock and always see a consistent directory. It is built with
+ * two queries on first use; afterwards writers call refresh(providerId) once
+ * their change has committed and only that provider is reloaded.
+ * ProviderDirectoryListeners see every rebuild and every single change.
+ */
+@Component
+public class ProviderDirectory {
+
+    private static final TypeReference<Map<String, Object>> JSON_MAP = new TypeReference<Map<String, Object>>() {};
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private ServicesRepository servicesRepository;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private volatile Snapshot snapshot;
+
+    private final List<ProviderDirectoryListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Immutable view of the directory at one point in time.
+     */
+    public static final class Snapshot {
+        private final Map<String, ProviderProfile> byId;
+        private final List<ProviderProfile> profiles;
+        private final List<Map<String, Object>> views;
+
+        Snapshot(Map<String, ProviderProfile> byId) {
+            this.byId = Collections.unmodifiableMap(byId);
+            this.profiles = Collections.unmodifiableList(new ArrayList<>(byId.values()));
+            List<Map<String, Object>> v = new ArrayList<>(profiles.size());
+            for (ProviderProfile p : profiles) v.add(p.asView());
+            this.views = Collections.unmodifiableList(v);
+        }
+
+        public List<ProviderProfile> getProfiles() {
+            return profiles;
+        }
+
+        public List<Map<String, Object>> getViews() {
+            return views;
+        }
+
+        public ProviderProfile get(String providerId) {
+            return byId.get(providerId);
+        }
+    }
+
+    /**
+     * Register an index to be kept in step with the directory. If the snapshot is
+     * already built the listener is brought up to date immediately.
+     */
+    public void addListener(ProviderDirectoryListener listener) {
+        synchronized (this) {
+            listeners.add(listener);
+            if (snapshot != null) listener.directoryLoaded(snapshot);
+        }
+    }
+
+    public Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s != null) return s;
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = load();
+                for (ProviderDirectoryListener l : listeners) l.directoryLoaded(snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    public Optional<ProviderProfile> get(String providerId) {
+        return Optional.ofNullable(snapshot().get(providerId));
+    }
+
+    /**
+     * Reload one provider (or drop them if they are no longer a provider) and publish a new snapshot.
+     * Call after the change has committed, e.g. via TransactionHooks.afterCommit.
+     */
+    public void refresh(String providerId) {
+        if (providerId == null) return;
+        synchronized (this) {
+            if (snapshot == null) return; // first read builds everything anyway
+            Users user = usersRepository.findById(providerId).orElse(null);
+            ProviderProfile profile = null;
+            if (user != null && user.getRole() == UserRole.PROVIDER) {
+                List<Services> services = servicesRepository.findByProvider(user);
+                profile = toProfile(user, services == null || services.isEmpty() ? null : services.get(0));
+            }
+            Map<String, ProviderProfile> next = new LinkedHashMap<>(snapshot.byId);
+            ProviderProfile before = profile == null ? next.remove(providerId) : next.put(providerId, profile);
+            snapshot = new Snapshot(next);
+            if (before != null || profile != null) {
+                for (ProviderDirectoryListener l : listeners) l.providerChanged(before, profile);
+            }
+        }
+    }
+
+    /**
+     * Refresh once the current transaction commits (immediately when there is none).
+     */
+    public void refreshAfterCommit(String providerId) {
+        TransactionHooks.afterCommit(() -> refresh(providerId));
+    }
+
+    private Snapshot load() {
+        Map<String, ProviderProfile> byId = new LinkedHashMap<>();
+        Map<String, Services> firstService = new LinkedHashMap<>();
+        for (Services s : servicesRepository.findAllOfProviders()) {
+            firstService.putIfAbsent(s.getProvider().getId(), s);
+        }
+        for (Users user : usersRepository.findByRole(UserRole.PROVIDER)) {
+            byId.put(user.getId(), toProfile(user, firstService.get(user.getId())));
+        }
+        return new Snapshot(byId);
+    }
+
+    private ProviderProfile toProfile(Users user, Services service) {
+        if (service == null) {
+            return new ProviderProfile(user.getId(), user.getName(), user.getEmail(), user.getPhno(), user.getLocation(),
+                    user.getLatitude(), user.getLongitude(), null, null, null, null, null, null, null);
+        }
+        return new ProviderProfile(user.getId(), user.getName(), user.getEmail(), user.getPhno(), user.getLocation(),
+                user.getLatitude(), user.getLongitude(), service.getId(), service.getCategory(), service.getDescription(), service.getVerified(),
+                parseMap(service.getAvailability()), weeklyOf(service), parseMap(service.getSubcategory()));
+    }
+
+    // rows written before availability_mask existed are compiled here until SchemaMigrations fills them
+    private WeeklyAvailability weeklyOf(Services service) {
+        WeeklyAvailability mask = service.getAvailabilityMask();
+        return mask != null ? mask : WeeklyAvailability.fromJson(service.getAvailability());
+    }
+
+    private Map<String, Object> parseMap(String json) {
+        if (json == null || json.trim().isEmpty()) return null;
+        try {
+            return mapper.readValue(json, JSON_MAP);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package FixItNow.manager;
+
+import FixItNow.model.ProviderProfile;
+
+/**
+ * Derived indexes (search, geo, ranking) that follow the provider directory.
+ * Calls are made under the directory's write lock, in change order, so
+ * implementations should only update their own in-memory structures.
+ */
+public interface ProviderDirectoryListener {
+
+    /**
+     * The directory was (re)built from the database; replace everything.
+     */
+    void directoryLoaded(ProviderDirectory.Snapshot snapshot);
+
+    /**
+     * One provider changed. before is null for a new provider, after is null for a removed one.
+     */
+    void providerChanged(ProviderProfile before, ProviderProfile after);
+}
@@ -0,0 +1,239 @@
+package FixItNow.manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import FixItNow.model.GeoPoint;
+import FixItNow.model.ProviderProfile;
+import FixItNow.model.ServicesVerified;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Uniform lat/lng grid over verified providers with known coordinates, for
+ * "k nearest within a radius" queries. A query scans the cells in growing
+ * square rings around the query cell (columns wrap at the antimeridian) and
+ * stops once the k-th best distance, or the radius, is closer than anything
+ * outside the visited cells could be, so the work depends on local density,
+ * not on the number of providers. Kept in step with the provider directory.
+ */
+@Component
+public class ProviderGeoIndex implements ProviderDirectoryListener {
+
+    private static final double KM_PER_DEGREE = Math.PI * GeoPoint.EARTH_RADIUS_KM / 180;
+
+    @Autowired
+    private ProviderDirectory directory;
+
+    // ~11 km cells by default: a 10 km query touches a few dozen cells at most
+    @Value("${app.geo.cell-degrees:0.1}")
+    private double cellDegrees;
+
+    private int rows;
+    private int cols;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final Map<String, Entry> byProvider = new HashMap<>();
+
+    private static final class Entry {
+        final ProviderProfile profile;
+        final double lat;
+        final double lng;
+        final String category;
+        final long cell;
+
+        Entry(ProviderProfile profile, long cell) {
+            this.profile = profile;
+            this.lat = profile.getLatitude();
+            this.lng = profile.getLongitude();
+            this.category = ProviderSearchIndex.normalize(profile.getCategory());
+            this.cell = cell;
+        }
+    }
+
+    private static final class Hit {
+        final Entry entry;
+        final double distanceKm;
+
+        Hit(Entry entry, double distanceKm) {
+            this.entry = entry;
+            this.distanceKm = distanceKm;
+        }
+    }
+
+    @PostConstruct
+    void register() {
+        rows = (int) Math.ceil(180 / cellDegrees);
+        cols = (int) Math.ceil(360 / cellDegrees);
+        directory.addListener(this);
+    }
+
+    @Override
+    public void directoryLoaded(ProviderDirectory.Snapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            byProvider.clear();
+            for (ProviderProfile p : snapshot.getProfiles()) add(p);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void providerChanged(ProviderProfile before, ProviderProfile after) {
+        lock.writeLock().lock();
+        try {
+            if (before != null) remove(before.getId());
+            if (after != null) add(after);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to k verified providers within radiusKm of the point, nearest first, optionally
+     * only those in category. Each result is the provider's directory view plus "distanceKm".
+     */
+    public List<Map<String, Object>> nearest(GeoPoint point, double radiusKm, int k, String category) {
+        directory.snapshot(); // builds the directory (and this index) on first use
+        String wanted = category == null || category.isBlank() ? null : ProviderSearchIndex.normalize(category);
+
+        // max-heap on distance holding the best k so far
+        PriorityQueue<Hit> best = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(b.distanceKm, a.distanceKm));
+        lock.readLock().lock();
+        try {
+            int row = cellRow(point.getLat());
+            int col = cellCol(point.getLng());
+            // a wide ring wraps around onto columns it has already visited
+            Set<Long> visited = new HashSet<>();
+            for (int ring = 0; ; ring++) {
+                for (int dr = -ring; dr <= ring; dr++) {
+                    int r = row + dr;
+                    if (r < 0 || r >= rows) continue;
+                    boolean edgeRow = Math.abs(dr) == ring;
+                    for (int dc = -ring; dc <= ring; dc += edgeRow || ring == 0 ? 1 : 2 * ring) {
+                        long cell = key(r, Math.floorMod(col + dc, cols));
+                        if (!visited.add(cell)) continue;
+                        List<Entry> entries = cells.get(cell);
+                        if (entries == null) continue;
+                        for (Entry e : entries) {
+                            if (wanted != null && !wanted.equals(e.category)) continue;
+                            double d = point.distanceKm(e.lat, e.lng);
+                            if (d > radiusKm) continue;
+                            if (best.size() < k) {
+                                best.add(new Hit(e, d));
+                            } else if (d < best.peek().distanceKm) {
+                                best.poll();
+                                best.add(new Hit(e, d));
+                            }
+                        }
+                    }
+                }
+                double unvisited = minDistanceOutside(point, row, col, ring);
+                if (unvisited > radiusKm) break;
+                if (best.size() == k && best.peek().distanceKm <= unvisited) break;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort((a, b) -> Double.compare(a.distanceKm, b.distanceKm));
+        List<Map<String, Object>> out = new ArrayList<>(hits.size());
+        for (Hit h : hits) {
+            Map<String, Object> item = new LinkedHashMap<>(h.entry.profile.asView());
+            item.put("latitude", h.entry.lat);
+            item.put("longitude", h.entry.lng);
+            item.put("distanceKm", Math.round(h.distanceKm * 100) / 100.0);
+            out.add(item);
+        }
+        return out;
+    }
+
+    private void add(ProviderProfile p) {
+        if (p.getLatitude() == null || p.getLongitude() == null) return;
+        if (p.getVerified() != ServicesVerified.APPROVED) return;
+        Entry e = new Entry(p, key(cellRow(p.getLatitude()), cellCol(p.getLongitude())));
+        cells.computeIfAbsent(e.cell, c -> new ArrayList<>()).add(e);
+        byProvider.put(p.getId(), e);
+    }
+
+    private void remove(String providerId) {
+        Entry e = byProvider.remove(providerId);
+        if (e == null) return;
+        List<Entry> entries = cells.get(e.cell);
+        if (entries == null) return;
+        entries.remove(e);
+        if (entries.isEmpty()) cells.remove(e.cell);
+    }
+
+    /**
+     * Lower bound (km) on the distance from point to any position outside the cells
+     * within ring of (row, col); infinite once those cells cover the globe. Such a
+     * position is either beyond the visited latitudes, at least the meridian distance
+     * away, or beyond the visited longitudes, at least as far as the nearer boundary
+     * meridian of the visited box.
+     */
+    double minDistanceOutside(GeoPoint point, int row, int col, int ring) {
+        double bound = Double.POSITIVE_INFINITY;
+        double south = -90 + (row - ring) * cellDegrees;
+        double north = -90 + (row + ring + 1) * cellDegrees;
+        if (south > -90) bound = Math.min(bound, (point.getLat() - south) * KM_PER_DEGREE);
+        if (north < 90) bound = Math.min(bound, (north - point.getLat()) * KM_PER_DEGREE);
+        if (2 * ring + 1 < cols) {
+            double west = -180 + (col - ring) * cellDegrees;
+            double east = -180 + (col + ring + 1) * cellDegrees;
+            bound = Math.min(bound, distanceToMeridianKm(point.getLat(), point.getLng() - west));
+            bound = Math.min(bound, distanceToMeridianKm(point.getLat(), east - point.getLng()));
+        }
+        return bound;
+    }
+
+    // shortest great-circle distance from latitude lat to a meridian deltaLng degrees away (0..180)
+    static double distanceToMeridianKm(double lat, double deltaLng) {
+        double delta = Math.min(Math.abs(deltaLng), 360 - Math.abs(deltaLng));
+        if (delta >= 90) {
+            // the nearest point of the meridian is the nearer pole
+            return (90 - Math.abs(lat)) * KM_PER_DEGREE;
+        }
+        double crossTrack = Math.asin(Math.min(1, Math.cos(Math.toRadians(lat)) * Math.sin(Math.toRadians(delta))));
+        return crossTrack * GeoPoint.EARTH_RADIUS_KM;
+    }
+
+    // rows run south to north from -90, columns east from -180 and wrap at the antimeridian
+    private int cellRow(double lat) {
+        return Math.min((int) Math.floor((lat + 90) / cellDegrees), rows - 1);
+    }
+
+    private int cellCol(double lng) {
+        return Math.floorMod((int) Math.floor((lng + 180) / cellDegrees), cols);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byProvider.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package FixItNow.manager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import FixItNow.model.BookingStatus;
+import FixItNow.model.ProviderProfile;
+import FixItNow.model.ProviderRatingStats;
+import FixItNow.model.ProviderTally;
+import FixItNow.model.ServicesVerified;
+import FixItNow.repository.BookingRepository;
+import FixItNow.repository.ProviderRatingStatsRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Providers ordered best-first, overall and per category, for
+ * GET /users/providers/top. The score is
+ *
+ *   bayesian average + VOLUME_WEIGHT * log10(1 + reviews)
+ *     + RECENT_WEIGHT * log10(1 + completed bookings in the last recent-days)
+ *     + VERIFIED_BONUS if the service is approved
+ *
+ * where the bayesian average pulls providers with few reviews towards the
+ * mean rating of all reviews. Scores live in ConcurrentSkipListSets, so a
+ * top-N read is a walk over the first N entries and never blocks writers.
+ * New reviews and completed bookings re-score one provider after commit; the
+ * directory listener follows category/verification changes; a periodic
+ * rebuild (rating totals from provider_rating_stats, one GROUP BY over
+ * recent bookings) ages out old bookings and picks up the new global mean.
+ */
+@Component
+public class ProviderRanking implements ProviderDirectoryListener {
+
+    private static final double PRIOR_WEIGHT = 5;
+    private static final double DEFAULT_MEAN = 4.0;
+    private static final double VOLUME_WEIGHT = 0.25;
+    private static final double RECENT_WEIGHT = 0.25;
+    private static final double VERIFIED_BONUS = 0.5;
+
+    private static final Comparator<Entry> BEST_FIRST =
+            Comparator.comparingDouble((Entry e) -> e.score).reversed().thenComparing(e -> e.profile.getId());
+
+    @Autowired
+    private ProviderDirectory directory;
+
+    @Autowired
+    private ProviderRatingStatsRepository ratingStatsRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${app.ranking.recent-days:30}")
+    private int recentDays;
+
+    // guarded by this
+    private final Map<String, ProviderProfile> profiles = new HashMap<>();
+    private final Map<String, Stats> stats = new HashMap<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private long globalReviews;
+    private long globalStars;
+
+    // read without locking
+    private final NavigableSet<Entry> all = new ConcurrentSkipListSet<>(BEST_FIRST);
+    private final ConcurrentMap<String, NavigableSet<Entry>> byCategory = new ConcurrentHashMap<>();
+
+    private static final class Stats {
+        long reviews;
+        long stars;
+        long recentCompleted;
+    }
+
+    private static final class Entry {
+        final ProviderProfile profile;
+        final String category;
+        final double score;
+        final long reviews;
+        final double average;
+        final long recentCompleted;
+
+        Entry(ProviderProfile profile, String category, double score, long reviews, double average, long recentCompleted) {
+            this.profile = profile;
+            this.category = category;
+            this.score = score;
+            this.reviews = reviews;
+            this.average = average;
+            this.recentCompleted = recentCompleted;
+        }
+    }
+
+    @PostConstruct
+    void register() {
+        directory.addListener(this);
+    }
+
+    /**
+     * Reload review and booking totals and re-score everyone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.ranking.rebuild-ms:3600000}", fixedDelayString = "${app.ranking.rebuild-ms:3600000}")
+    public void rebuild() {
+        // outside our lock: building the snapshot calls directoryLoaded, which takes it
+        directory.snapshot();
+
+        Map<String, Stats> fresh = new HashMap<>();
+        long reviews = 0;
+        long stars = 0;
+        for (ProviderRatingStats r : ratingStatsRepository.findAll()) {
+            Stats s = fresh.computeIfAbsent(r.getProviderId(), k -> new Stats());
+            s.reviews = r.getReviewCount();
+            s.stars = r.getRatingSum();
+            reviews += r.getReviewCount();
+            stars += r.getRatingSum();
+        }
+        LocalDate since = LocalDate.now().minusDays(recentDays);
+        for (ProviderTally t : bookingRepository.countByProviderSince(BookingStatus.COMPLETED, since)) {
+            fresh.computeIfAbsent(t.getProviderId(), k -> new Stats()).recentCompleted = t.getCount();
+        }
+
+        synchronized (this) {
+            stats.clear();
+            stats.putAll(fresh);
+            globalReviews = reviews;
+            globalStars = stars;
+            rescoreAll();
+        }
+    }
+
+    /**
+     * A review was saved (call after commit).
+     */
+    public synchronized void reviewAdded(String providerId, int rating) {
+        Stats s = stats.computeIfAbsent(providerId, k -> new Stats());
+        s.reviews++;
+        s.stars += rating;
+        globalReviews++;
+        globalStars += rating;
+        rescore(providerId);
+    }
+
+    /**
+     * A booking of the provider was completed (call after commit).
+     */
+    public synchronized void bookingCompleted(String providerId) {
+        stats.computeIfAbsent(providerId, k -> new Stats()).recentCompleted++;
+        rescore(providerId);
+    }
+
+    @Override
+    public synchronized void directoryLoaded(ProviderDirectory.Snapshot snapshot) {
+        profiles.clear();
+        for (ProviderProfile p : snapshot.getProfiles()) profiles.put(p.getId(), p);
+        rescoreAll();
+    }
+
+    @Override
+    public synchronized void providerChanged(ProviderProfile before, ProviderProfile after) {
+        String id = after != null ? after.getId() : before.getId();
+        if (after == null) profiles.remove(id);
+        else profiles.put(id, after);
+        rescore(id);
+    }
+
+    /**
+     * The best providers, optionally only in category: their directory view plus
+     * "score", "rating" (plain average, null without reviews), "reviewCount" and "recentCompleted".
+     */
+    public List<Map<String, Object>> top(String category, int limit) {
+        directory.snapshot(); // builds the directory (and this ranking) on first use
+        NavigableSet<Entry> ranked = category == null || category.isBlank()
+                ? all : byCategory.get(ProviderSearchIndex.normalize(category));
+        List<Map<String, Object>> out = new ArrayList<>(limit);
+        if (ranked == null) return out;
+        for (Entry e : ranked) {
+            if (out.size() >= limit) break;
+            Map<String, Object> item = new LinkedHashMap<>(e.profile.asView());
+            item.put("score", Math.round(e.score * 1000) / 1000.0);
+            item.put("rating", e.reviews == 0 ? null : Math.round(e.average * 100) / 100.0);
+            item.put("reviewCount", e.reviews);
+            item.put("recentCompleted", e.recentCompleted);
+            out.add(item);
+        }
+        return out;
+    }
+
+    // entry by entry, so concurrent top() reads never see an empty ranking
+    private void rescoreAll() {
+        for (String id : new ArrayList<>(entries.keySet())) {
+            if (!profiles.containsKey(id)) rescore(id);
+        }
+        for (String id : profiles.keySet()) rescore(id);
+    }
+
+    private void rescore(String providerId) {
+        Entry old = entries.remove(providerId);
+        if (old != null) {
+            all.remove(old);
+            if (old.category != null) {
+                NavigableSet<Entry> set = byCategory.get(old.category);
+                if (set != null) set.remove(old);
+            }
+        }
+        ProviderProfile p = profiles.get(providerId);
+        if (p == null) return;
+
+        Stats s = stats.getOrDefault(providerId, new Stats());
+        double mean = globalReviews == 0 ? DEFAULT_MEAN : (double) globalStars / globalReviews;
+        double bayesian = (PRIOR_WEIGHT * mean + s.stars) / (PRIOR_WEIGHT + s.reviews);
+        double score = bayesian
+                + VOLUME_WEIGHT * Math.log10(1 + s.reviews)
+                + RECENT_WEIGHT * Math.log10(1 + s.recentCompleted)
+                + (p.getVerified() == ServicesVerified.APPROVED ? VERIFIED_BONUS : 0);
+        String category = p.getServiceId() == null ? null : ProviderSearchIndex.normalize(p.getCategory());
+        if (category != null && category.isEmpty()) category = null;
+        double average = s.reviews == 0 ? 0 : (double) s.stars / s.reviews;
+
+        Entry e = new Entry(p, category, score, s.reviews, average, s.recentCompleted);
+        entries.put(providerId, e);
+        all.add(e);
+        if (category != null) byCategory.computeIfAbsent(category, k -> new ConcurrentSkipListSet<>(BEST_FIRST)).add(e);
+    }
+}
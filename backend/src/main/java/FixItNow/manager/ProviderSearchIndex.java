@@ -0,0 +1,233 @@
+package FixItNow.manager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import FixItNow.model.ProviderProfile;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Inverted index over the provider directory for GET /service/search. Each
+ * provider gets a dense doc number; every facet term (category, subcategory
+ * name, verification state, location part) maps to a BitSet of the providers
+ * carrying it, so filters are word-wise AND/OR and facet counts are
+ * intersections. Kept current through ProviderDirectoryListener, i.e. after
+ * every ServicesManager/UsersManager write.
+ */
+@Component
+public class ProviderSearchIndex implements ProviderDirectoryListener {
+
+    public static final String CATEGORY = "category";
+    public static final String SUBCATEGORY = "subcategory";
+    public static final String VERIFIED = "verified";
+    public static final String LOCATION = "location";
+    public static final List<String> FACETS = List.of(CATEGORY, SUBCATEGORY, VERIFIED, LOCATION);
+
+    private static final Pattern NUMBER = Pattern.compile("^-?\\d+(\\.\\d+)?$");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    @Autowired
+    private ProviderDirectory directory;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // all guarded by lock
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final List<ProviderProfile> docs = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, Map<String, Posting>> postings = new HashMap<>();
+
+    private static final class Posting {
+        final String label; // the spelling first seen, shown in facet counts
+        final BitSet docs = new BitSet();
+
+        Posting(String label) {
+            this.label = label;
+        }
+    }
+
+    @PostConstruct
+    void register() {
+        directory.addListener(this);
+    }
+
+    @Override
+    public void directoryLoaded(ProviderDirectory.Snapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            docIds.clear();
+            docs.clear();
+            live.clear();
+            postings.clear();
+            for (ProviderProfile p : snapshot.getProfiles()) {
+                index(p);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void providerChanged(ProviderProfile before, ProviderProfile after) {
+        lock.writeLock().lock();
+        try {
+            if (before != null) unindex(before);
+            if (after != null) index(after);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Providers matching every given facet. Within a facet the values are OR-ed,
+     * or AND-ed when allValues is set (e.g. providers offering all listed subcategories).
+     * Returns {"total", "page", "size", "items": [provider views], "facets": {facet: [{value, label, count}]}}.
+     */
+    public Map<String, Object> search(Map<String, List<String>> filters, boolean allValues, int page, int size, int facetLimit) {
+        directory.snapshot(); // builds the directory (and this index) on first use
+
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) live.clone();
+            for (Map.Entry<String, List<String>> f : filters.entrySet()) {
+                if (f.getValue() == null || f.getValue().isEmpty()) continue;
+                result.and(match(f.getKey(), f.getValue(), allValues));
+            }
+
+            int total = result.cardinality();
+            List<Map<String, Object>> items = new ArrayList<>(Math.min(size, total));
+            int skip = page * size;
+            for (int doc = result.nextSetBit(0); doc >= 0 && items.size() < size; doc = result.nextSetBit(doc + 1)) {
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                items.add(docs.get(doc).asView());
+            }
+
+            Map<String, Object> facets = new LinkedHashMap<>();
+            for (String facet : FACETS) {
+                facets.put(facet, counts(facet, result, facetLimit));
+            }
+
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("total", total);
+            out.put("page", page);
+            out.put("size", size);
+            out.put("items", items);
+            out.put("facets", facets);
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet match(String facet, List<String> values, boolean allValues) {
+        Map<String, Posting> terms = postings.getOrDefault(facet, Collections.emptyMap());
+        BitSet matched = allValues ? (BitSet) live.clone() : new BitSet();
+        for (String value : values) {
+            Posting p = terms.get(normalize(value));
+            if (allValues) {
+                if (p == null) return new BitSet();
+                matched.and(p.docs);
+            } else if (p != null) {
+                matched.or(p.docs);
+            }
+        }
+        return matched;
+    }
+
+    private List<Map<String, Object>> counts(String facet, BitSet result, int limit) {
+        List<Map<String, Object>> counts = new ArrayList<>();
+        for (Map.Entry<String, Posting> e : postings.getOrDefault(facet, Collections.emptyMap()).entrySet()) {
+            BitSet hits = (BitSet) e.getValue().docs.clone();
+            hits.and(result);
+            int n = hits.cardinality();
+            if (n == 0) continue;
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("value", e.getKey());
+            c.put("label", e.getValue().label);
+            c.put("count", n);
+            counts.add(c);
+        }
+        counts.sort((a, b) -> Integer.compare((Integer) b.get("count"), (Integer) a.get("count")));
+        return counts.size() > limit ? new ArrayList<>(counts.subList(0, limit)) : counts;
+    }
+
+    // keeps the provider's doc number on updates so result order stays stable
+    private void index(ProviderProfile p) {
+        Integer doc = docIds.get(p.getId());
+        if (doc == null) {
+            doc = docs.size();
+            docs.add(p);
+            docIds.put(p.getId(), doc);
+        } else {
+            docs.set(doc, p);
+        }
+        live.set(doc);
+        for (Map.Entry<String, Set<String>> facet : termsOf(p).entrySet()) {
+            Map<String, Posting> terms = postings.computeIfAbsent(facet.getKey(), k -> new HashMap<>());
+            for (String label : facet.getValue()) {
+                terms.computeIfAbsent(normalize(label), k -> new Posting(label)).docs.set(doc);
+            }
+        }
+    }
+
+    private void unindex(ProviderProfile p) {
+        Integer doc = docIds.get(p.getId());
+        if (doc == null) return;
+        live.clear(doc);
+        for (Map.Entry<String, Set<String>> facet : termsOf(p).entrySet()) {
+            Map<String, Posting> terms = postings.get(facet.getKey());
+            if (terms == null) continue;
+            for (String label : facet.getValue()) {
+                String term = normalize(label);
+                Posting posting = terms.get(term);
+                if (posting == null) continue;
+                posting.docs.clear(doc);
+                if (posting.docs.isEmpty()) terms.remove(term);
+            }
+        }
+    }
+
+    private static Map<String, Set<String>> termsOf(ProviderProfile p) {
+        Map<String, Set<String>> terms = new HashMap<>();
+        if (p.getServiceId() == null) return terms;
+        addTerm(terms, CATEGORY, p.getCategory());
+        for (String sub : p.getSubcategory().keySet()) {
+            addTerm(terms, SUBCATEGORY, sub);
+        }
+        if (p.getVerified() != null) addTerm(terms, VERIFIED, p.getVerified().name());
+        // "Street, City, State" -> each part; "17.38, 78.48" coordinates are not searchable text
+        if (p.getLocation() != null) {
+            for (String part : p.getLocation().split(",")) {
+                if (!NUMBER.matcher(part.trim()).matches()) addTerm(terms, LOCATION, part.trim());
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(Map<String, Set<String>> terms, String facet, String label) {
+        if (label == null || normalize(label).isEmpty()) return;
+        terms.computeIfAbsent(facet, k -> new LinkedHashSet<>()).add(label.trim());
+    }
+
+    static String normalize(String value) {
+        if (value == null) return "";
+        return SPACES.matcher(value.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+}
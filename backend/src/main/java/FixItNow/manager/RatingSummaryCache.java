@@ -0,0 +1,34 @@
+package FixItNow.manager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import FixItNow.model.ProviderRatingStats;
+import FixItNow.repository.ProviderRatingStatsRepository;
+
+/**
+ * Provider rating summaries (GET /reviews/provider/{id}/summary) cached per
+ * provider. A miss reads the single provider_rating_stats row; ReviewsManager
+ * evicts the provider once a new review has committed, so the next read sees it.
+ */
+@Component
+public class RatingSummaryCache {
+
+    @Autowired
+    private ProviderRatingStatsRepository statsRepository;
+
+    private final ConcurrentMap<String, Map<String, Object>> summaries = new ConcurrentHashMap<>();
+
+    public Map<String, Object> get(String providerId) {
+        return summaries.computeIfAbsent(providerId,
+                id -> ProviderRatingStats.summaryOf(id, statsRepository.findById(id).orElse(null)));
+    }
+
+    public void evict(String providerId) {
+        summaries.remove(providerId);
+    }
+}
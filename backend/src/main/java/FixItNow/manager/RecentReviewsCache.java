@@ -0,0 +1,120 @@
+package FixItNow.manager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import FixItNow.model.ReviewFeedRow;
+import FixItNow.repository.ReviewsRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The latest app.reviews.recent.size reviews of recently viewed providers, for
+ * profile pages. Each provider has a fixed-size ring buffer, filled on first
+ * view with one LIMIT query and appended to when a review commits; the
+ * least recently viewed provider is dropped once max-providers are cached.
+ */
+@Component
+public class RecentReviewsCache {
+
+    @Autowired
+    private ReviewsRepository reviewsRepository;
+
+    @Value("${app.reviews.recent.size:20}")
+    private int size;
+
+    @Value("${app.reviews.recent.max-providers:1000}")
+    private int maxProviders;
+
+    // guarded by this; access order makes the eldest entry the least recently viewed
+    private Map<String, Ring> rings;
+
+    // bumped by every append, so a load that raced with one is not cached stale
+    private long appends;
+
+    private static final class Ring {
+        final ReviewFeedRow[] slots;
+        int next;
+        int count;
+
+        Ring(int capacity) {
+            slots = new ReviewFeedRow[capacity];
+        }
+
+        void push(ReviewFeedRow row) {
+            // a load that read the review and an append of the same commit can both reach the ring
+            if (contains(row.getReviewId())) return;
+            slots[next] = row;
+            next = (next + 1) % slots.length;
+            if (count < slots.length) count++;
+        }
+
+        boolean contains(String reviewId) {
+            for (int i = 0; i < count; i++) {
+                if (slots[i].getReviewId().equals(reviewId)) return true;
+            }
+            return false;
+        }
+
+        List<ReviewFeedRow> newest(int limit) {
+            int n = Math.min(limit, count);
+            List<ReviewFeedRow> out = new ArrayList<>(n);
+            for (int i = 1; i <= n; i++) {
+                out.add(slots[(next - i + slots.length) % slots.length]);
+            }
+            return out;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        rings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Ring> eldest) {
+                return size() > maxProviders;
+            }
+        };
+    }
+
+    public int capacity() {
+        return size;
+    }
+
+    /**
+     * Up to limit (at most capacity()) of the provider's newest reviews, newest first.
+     */
+    public List<ReviewFeedRow> newest(String providerId, int limit) {
+        long seen;
+        synchronized (this) {
+            Ring ring = rings.get(providerId);
+            if (ring != null) return ring.newest(limit);
+            seen = appends;
+        }
+
+        // newest first from the query; pushed oldest first so the ring ends on the newest
+        List<ReviewFeedRow> rows = reviewsRepository.findFeedPage(providerId, null, null, null, PageRequest.of(0, size));
+        Ring ring = new Ring(size);
+        for (int i = rows.size() - 1; i >= 0; i--) ring.push(rows.get(i));
+
+        synchronized (this) {
+            if (appends == seen) rings.putIfAbsent(providerId, ring);
+        }
+        return ring.newest(limit);
+    }
+
+    /**
+     * A review was committed; cached providers get it at the head, others load it with their next view.
+     */
+    public synchronized void append(ReviewFeedRow row) {
+        appends++;
+        Ring ring = rings.get(row.getProviderId());
+        if (ring != null) ring.push(row);
+    }
+}
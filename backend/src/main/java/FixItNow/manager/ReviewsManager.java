@@ -1,15 +1,19 @@
 package FixItNow.manager;
 
 import FixItNow.model.Booking;
+import FixItNow.model.ReviewFeedRow;
 import FixItNow.model.Reviews;
 import FixItNow.model.Users;
 import FixItNow.repository.BookingRepository;
+import FixItNow.repository.ProviderRatingStatsRepository;
 import FixItNow.repository.ReviewsRepository;
 import FixItNow.repository.UsersRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -26,50 +30,92 @@ public class ReviewsManager {
     @Autowired
     private UsersRepository usersRepository;
 
+    @Autowired
+    private ProviderRanking providerRanking;
+
+    @Autowired
+    private ProviderRatingStatsRepository ratingStatsRepository;
+
+    @Autowired
+    private RatingSummaryCache ratingSummaryCache;
+
+    @Autowired
+    private RecentReviewsCache recentReviewsCache;
+
     private final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+    private static final int DEFAULT_FEED_SIZE = 20;
+    private static final int MAX_FEED_SIZE = 100;
+
     
- // Replace existing method in UsersManager
+    @Autowired
+    private IdAllocator idAllocator;
+
     public String generateNextReviewsId() {
-        int max = 0;
-        // load all users (lightweight for modest user counts). If you prefer, add a repository query to return only ids.
-        for (Reviews u : reviewsRepository.findAll()) {
-            String id = u.getId();
-            if (id != null && id.startsWith("R")) {
-                try {
-                    int n = Integer.parseInt(id.substring(1));
-                    if (n > max) max = n;
-                } catch (NumberFormatException ignored) {
-                    // ignore non-numeric suffixes
-                }
-            }
-        }
-        return "R" + (max + 1);
+        return idAllocator.next(IdAllocator.REVIEW);
     }
     
     
     
-    public List<Map<String, Object>> getAllReviewsSimple() {
-        List<Reviews> reviews = reviewsRepository.findAll();
-        if (reviews == null || reviews.isEmpty()) return Collections.emptyList();
-
-        List<Map<String, Object>> out = new ArrayList<>(reviews.size());
-        for (Reviews r : reviews) {
-            Map<String, Object> m = new HashMap<>();
-            m.put("rating", r.getRating());
-            m.put("comment", r.getComment() != null ? r.getComment() : "");
-            Users provider = r.getProvider();
-            m.put("provider_id", provider != null ? provider.getId() : null);
-
-            // <-- change: include customer name (instead of customer_id)
-            Users customer = r.getCustomer();
-            m.put("customer_name", customer != null ? customer.getName() : null);
-
-            out.add(m);
+    /**
+     * One keyset page of the review feed, newest first, optionally for one provider and/or
+     * with rating >= minRating. Returns {"items": [...], "nextCursor": token or null}.
+     */
+    public Map<String, Object> getReviewFeed(String providerId, Integer minRating, String cursor, Integer limit) {
+        if (minRating != null && (minRating < 1 || minRating > 5)) throw new IllegalArgumentException("minRating must be between 1 and 5");
+        int size = limit == null ? DEFAULT_FEED_SIZE : limit;
+        if (size < 1) throw new IllegalArgumentException("limit must be at least 1");
+        size = Math.min(size, MAX_FEED_SIZE);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime afterAt = null;
+        if (after != null) {
+            try {
+                afterAt = LocalDateTime.parse(after.getKey());
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
         }
+        // a provider's first short page (the profile view) comes from the recent-reviews cache
+        List<ReviewFeedRow> rows = providerId != null && minRating == null && after == null && size < recentReviewsCache.capacity()
+                ? recentReviewsCache.newest(providerId, size + 1)
+                : reviewsRepository.findFeedPage(providerId, minRating, afterAt,
+                        after == null ? null : after.getId(), PageRequest.of(0, size + 1));
+
+        // the extra row only tells us another page exists
+        boolean hasMore = rows.size() > size;
+        List<ReviewFeedRow> pageRows = hasMore ? rows.subList(0, size) : rows;
+        List<Map<String, Object>> items = new ArrayList<>(pageRows.size());
+        for (ReviewFeedRow r : pageRows) items.add(toFeedItem(r));
+        ReviewFeedRow last = hasMore ? pageRows.get(pageRows.size() - 1) : null;
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", items);
+        page.put("nextCursor", last == null ? null : new KeysetCursor(last.getCreatedAt().toString(), last.getReviewId()).encode());
+        return page;
+    }
+
+    /**
+     * The provider's newest reviews (at most the cache's capacity), usually without touching the database.
+     */
+    public List<Map<String, Object>> getRecentReviews(String providerId, int limit) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (ReviewFeedRow r : recentReviewsCache.newest(providerId, limit)) out.add(toFeedItem(r));
         return out;
     }
-    
+
+    // rating, comment, provider_id and customer_name, plus the review's id and time
+    private Map<String, Object> toFeedItem(ReviewFeedRow r) {
+        Map<String, Object> m = new HashMap<>();
+        m.put("reviewId", r.getReviewId());
+        m.put("rating", r.getRating());
+        m.put("comment", r.getComment() != null ? r.getComment() : "");
+        m.put("provider_id", r.getProviderId());
+        m.put("customer_name", r.getCustomerName());
+        if (r.getCreatedAt() != null) m.put("createdAt", r.getCreatedAt().format(ISO));
+        return m;
+    }
+
     @Transactional
     public Reviews createReview(String bookingId, String customerId, Integer rating, String comment) {
         if (bookingId == null || bookingId.isBlank()) throw new IllegalArgumentException("bookingId is required");
@@ -97,7 +143,18 @@ public class ReviewsManager {
         review.setRating(rating);
         review.setComment(comment == null ? "" : comment);
 
-        return reviewsRepository.save(review);
+        Reviews saved = reviewsRepository.save(review);
+        String providerId = provider.getId();
+        // same transaction: the totals never disagree with the reviews table
+        ratingStatsRepository.addReview(providerId, rating, LocalDateTime.now());
+        ReviewFeedRow row = new ReviewFeedRow(saved.getId(), saved.getCreatedAt(), rating, saved.getComment(),
+                providerId, customer.getName());
+        TransactionHooks.afterCommit(() -> {
+            recentReviewsCache.append(row);
+            ratingSummaryCache.evict(providerId);
+            providerRanking.reviewAdded(providerId, rating);
+        });
+        return saved;
     }
 
 
@@ -132,6 +189,13 @@ public class ReviewsManager {
         return reviews.stream().map(this::toFrontendMap).collect(Collectors.toList());
     }
 
+    /**
+     * Review count, average, 1-5 star histogram and last review time of a provider, from the cache.
+     */
+    public Map<String, Object> getRatingSummary(String providerId) {
+        return ratingSummaryCache.get(providerId);
+    }
+
     private Map<String, Object> toFrontendMap(Reviews r) {
         Map<String, Object> m = new HashMap<>();
         m.put("reviewId", r.getId());
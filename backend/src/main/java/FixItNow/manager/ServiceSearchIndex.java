@@ -0,0 +1,340 @@
+package FixItNow.manager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import FixItNow.model.ProviderProfile;
+import FixItNow.model.Services;
+import FixItNow.repository.ServicesRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Lucene index over each provider's service (category, subcategory names,
+ * description) in a local directory, for GET /service/fulltext. Words are
+ * stemmed ("leaking" finds "leak"), the last word also matches as a prefix and
+ * longer words tolerate typos; hits are ranked by BM25. Like the directory it
+ * holds one document per provider, updated near-real-time through
+ * ProviderDirectoryListener after every ServicesManager/UsersManager write.
+ * The index survives restarts, so each directory load (forced at startup)
+ * reconciles it with the database: every document stores a digest of its
+ * indexed text, and only providers whose digest differs are rewritten.
+ * POST /service/fulltext/reindex (admins) rebuilds it from the services table.
+ */
+@Component
+public class ServiceSearchIndex implements ProviderDirectoryListener {
+    private static final Logger log = LoggerFactory.getLogger(ServiceSearchIndex.class);
+
+    private static final String PROVIDER_ID = "providerId";
+    private static final String SERVICE_ID = "serviceId";
+    private static final String CATEGORY = "category";
+    private static final String SUBCATEGORY = "subcategory";
+    private static final String DESCRIPTION = "description";
+    private static final String DIGEST = "digest";
+
+    // a category hit says more about the service than a word in its description
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(CATEGORY, 3f, SUBCATEGORY, 2f, DESCRIPTION, 1f);
+
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final TypeReference<Map<String, Object>> JSON_MAP = new TypeReference<>() {};
+
+    @Autowired
+    private ProviderDirectory directory;
+
+    @Autowired
+    private ServicesRepository servicesRepository;
+
+    @Value("${app.search.index-dir:search-index}")
+    private String indexDir;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private FSDirectory fsDirectory;
+    private IndexWriter writer;
+    private SearcherManager searchers;
+
+    @PostConstruct
+    void open() throws IOException {
+        Path path = Paths.get(indexDir).toAbsolutePath();
+        fsDirectory = FSDirectory.open(path);
+        writer = new IndexWriter(fsDirectory, new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searchers = new SearcherManager(writer, null);
+        directory.addListener(this);
+        log.info("opened {} with {} documents", path, writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searchers.close();
+        writer.close();
+        fsDirectory.close();
+    }
+
+    // loading the directory reconciles the index (directoryLoaded), so writes made while the
+    // app was down, or before anything read the directory, reach it
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileAtStartup() {
+        directory.snapshot();
+    }
+
+    /**
+     * Throw the index away and rebuild it from the services table. Searches keep
+     * seeing the old index until the rebuild is committed. Returns the number of documents.
+     */
+    @Transactional(readOnly = true)
+    public synchronized int reindex() {
+        // first service per provider, the one the directory and bookings use
+        Map<String, Services> firstService = new LinkedHashMap<>();
+        for (Services s : servicesRepository.findAllOfProviders()) {
+            firstService.putIfAbsent(s.getProvider().getId(), s);
+        }
+        try {
+            writer.deleteAll();
+            for (Map.Entry<String, Services> e : firstService.entrySet()) {
+                Services s = e.getValue();
+                writer.addDocument(document(e.getKey(), s.getId(), s.getCategory(), subcategoryNames(s.getSubcategory()), s.getDescription()));
+            }
+            writer.commit();
+            searchers.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        log.info("reindexed {} services", firstService.size());
+        return firstService.size();
+    }
+
+    /**
+     * Make the index match the directory: rewrite providers whose indexed text changed,
+     * add missing ones and delete documents of providers that are gone or have no service.
+     * Synchronized with providerChanged and reindex, so a concurrent update is never lost or doubled.
+     */
+    @Override
+    public synchronized void directoryLoaded(ProviderDirectory.Snapshot snapshot) {
+        int updated = 0;
+        int removed = 0;
+        try {
+            Map<String, String> indexed = indexedDigests();
+            for (ProviderProfile p : snapshot.getProfiles()) {
+                if (p.getServiceId() == null) continue;
+                Document doc = document(p);
+                if (!doc.get(DIGEST).equals(indexed.remove(p.getId()))) {
+                    writer.updateDocument(new Term(PROVIDER_ID, p.getId()), doc);
+                    updated++;
+                }
+            }
+            // whatever is left has no provider with a service behind it any more
+            for (String providerId : indexed.keySet()) {
+                writer.deleteDocuments(new Term(PROVIDER_ID, providerId));
+                removed++;
+            }
+            if (updated > 0 || removed > 0) {
+                writer.commit();
+                searchers.maybeRefreshBlocking();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        log.info("reconciled with the directory: {} updated, {} removed", updated, removed);
+    }
+
+    @Override
+    public synchronized void providerChanged(ProviderProfile before, ProviderProfile after) {
+        try {
+            if (after == null || after.getServiceId() == null) {
+                if (before != null) writer.deleteDocuments(new Term(PROVIDER_ID, before.getId()));
+            } else {
+                writer.updateDocument(new Term(PROVIDER_ID, after.getId()), document(after));
+            }
+            searchers.maybeRefresh();
+        } catch (IOException ex) {
+            log.warn("update failed for {}", after != null ? after.getId() : before.getId(), ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.commit-ms:60000}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) writer.commit();
+    }
+
+    /**
+     * Provider views of the best matches for free text, each with its "score".
+     * Returns {"total", "items"}.
+     */
+    public Map<String, Object> search(String text, int limit) throws IOException {
+        Query query = parse(text);
+        Map<String, Object> out = new LinkedHashMap<>();
+        List<Map<String, Object>> items = new ArrayList<>();
+        out.put("total", 0L);
+        out.put("items", items);
+        if (query == null) return out;
+
+        ProviderDirectory.Snapshot snapshot = directory.snapshot();
+        IndexSearcher searcher = searchers.acquire();
+        try {
+            TopDocs top = searcher.search(query, limit);
+            StoredFields stored = searcher.storedFields();
+            for (ScoreDoc hit : top.scoreDocs) {
+                ProviderProfile p = snapshot.get(stored.document(hit.doc).get(PROVIDER_ID));
+                if (p == null) continue;
+                Map<String, Object> item = new LinkedHashMap<>(p.asView());
+                item.put("score", hit.score);
+                items.add(item);
+            }
+            out.put("total", top.totalHits.value);
+        } finally {
+            searchers.release(searcher);
+        }
+        return out;
+    }
+
+    // each word: exact stem in any field, plus a fuzzy match for longer words and a prefix match for the last one
+    private Query parse(String text) throws IOException {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) return null;
+        BooleanQuery.Builder all = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean last = i == terms.size() - 1;
+            BooleanQuery.Builder word = new BooleanQuery.Builder();
+            for (Map.Entry<String, Float> field : FIELD_BOOSTS.entrySet()) {
+                Term t = new Term(field.getKey(), term);
+                word.add(new BoostQuery(new TermQuery(t), field.getValue()), BooleanClause.Occur.SHOULD);
+                if (term.length() >= 4) {
+                    word.add(new BoostQuery(new FuzzyQuery(t, term.length() >= 7 ? 2 : 1), field.getValue() * 0.5f), BooleanClause.Occur.SHOULD);
+                }
+                if (last && term.length() >= 2) {
+                    word.add(new BoostQuery(new PrefixQuery(t), field.getValue() * 0.5f), BooleanClause.Occur.SHOULD);
+                }
+            }
+            all.add(word.build(), BooleanClause.Occur.SHOULD);
+        }
+        return all.build();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        if (text == null) return terms;
+        try (TokenStream ts = analyzer.tokenStream(DESCRIPTION, text)) {
+            CharTermAttribute attr = ts.addAttribute(CharTermAttribute.class);
+            ts.reset();
+            while (ts.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(attr.toString());
+            }
+            ts.end();
+        }
+        return terms;
+    }
+
+    // providerId -> digest of every document in the index
+    private Map<String, String> indexedDigests() throws IOException {
+        Map<String, String> out = new HashMap<>();
+        searchers.maybeRefreshBlocking();
+        IndexSearcher searcher = searchers.acquire();
+        try {
+            int max = Math.max(1, searcher.getIndexReader().maxDoc());
+            StoredFields stored = searcher.storedFields();
+            for (ScoreDoc d : searcher.search(new MatchAllDocsQuery(), max).scoreDocs) {
+                Document doc = stored.document(d.doc, Set.of(PROVIDER_ID, DIGEST));
+                out.put(doc.get(PROVIDER_ID), doc.get(DIGEST));
+            }
+        } finally {
+            searchers.release(searcher);
+        }
+        return out;
+    }
+
+    private static Document document(ProviderProfile p) {
+        Map<String, Object> subcategory = p.getSubcategory();
+        return document(p.getId(), p.getServiceId(), p.getCategory(),
+                subcategory == null ? null : String.join(" ", subcategory.keySet()), p.getDescription());
+    }
+
+    private static Document document(String providerId, String serviceId, String category, String subcategories, String description) {
+        Document doc = new Document();
+        doc.add(new StringField(PROVIDER_ID, providerId, Field.Store.YES));
+        doc.add(new StringField(SERVICE_ID, serviceId, Field.Store.YES));
+        doc.add(new StoredField(DIGEST, digest(serviceId, category, subcategories, description)));
+        if (category != null) doc.add(new TextField(CATEGORY, category, Field.Store.NO));
+        if (subcategories != null) doc.add(new TextField(SUBCATEGORY, subcategories, Field.Store.NO));
+        if (description != null) doc.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+        return doc;
+    }
+
+    // SHA-256 of what the document indexes, to tell whether it is current
+    private static String digest(String... parts) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                md.update(part == null ? new byte[] { 0 } : ("\u0001" + part).getBytes(StandardCharsets.UTF_8));
+                md.update((byte) 0x1f);
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // subcategory is a JSON object whose keys are the offered sub-services
+    private String subcategoryNames(String json) {
+        if (json == null || json.isBlank()) return null;
+        try {
+            Map<String, Object> map = mapper.readValue(json, JSON_MAP);
+            return String.join(" ", map.keySet());
+        } catch (Exception e) {
+            return json;
+        }
+    }
+}
@@ -9,13 +9,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import FixItNow.model.Services;
 import FixItNow.model.ServicesVerified;
 import FixItNow.model.Users;
+import FixItNow.model.WeeklyAvailability;
 import FixItNow.repository.ServicesRepository;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
 
 @Service
 public class ServicesManager {
@@ -23,22 +33,19 @@ public class ServicesManager {
     @Autowired
     private ServicesRepository sr;
     
- // Replace existing method in UsersManager
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private ProviderDirectory providerDirectory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     public String generateNextServiceId() {
-        int max = 0;
-        // load all users (lightweight for modest user counts). If you prefer, add a repository query to return only ids.
-        for (Services u : sr.findAll()) {
-            String id = u.getId();
-            if (id != null && id.startsWith("S")) {
-                try {
-                    int n = Integer.parseInt(id.substring(1));
-                    if (n > max) max = n;
-                } catch (NumberFormatException ignored) {
-                    // ignore non-numeric suffixes
-                }
-            }
-        }
-        return "S" + (max + 1);
+        return idAllocator.next(IdAllocator.SERVICE);
     }
     
 
@@ -51,7 +58,9 @@ public class ServicesManager {
         service.setSubcategory("Default Subcategory");
         service.setDescription("Default description for new provider");
         service.setAvailability("{\"Monday\": \"9-5\"}");
-        return sr.save(service);
+        Services saved = sr.save(service);
+        providerDirectory.refreshAfterCommit(provider.getId());
+        return saved;
     }
     
     
@@ -62,90 +71,147 @@ public class ServicesManager {
         Services s = opt.get();
         s.setVerified(status);
         sr.save(s);
+        providerDirectory.refreshAfterCommit(s.getProvider().getId());
         return true;
     }
 
-    /*Update service details for the provider. */
+    /*Update service details for the provider (PUT /service/me): same as a patch without a version check. */
+    @Transactional
     public void updateServiceDetails(Users provider, Map<String, Object> data) {
+        patchServiceDetails(provider, data, null);
+    }
+
+    /**
+     * Apply only the fields present in data (description, category, availability, subcategory)
+     * to the provider's services. Each service is compared with what it stores; unchanged fields are
+     * skipped and, if no service changed, nothing is written and the directory is not refreshed.
+     * Otherwise each differing service gets one UPDATE that sets just its changed columns and bumps its version.
+     * expectedVersion, when given, must match the stored version (else IllegalStateException).
+     * Returns {"version": n, "changed": [fields]}.
+     */
+    @Transactional
+    public Map<String, Object> patchServiceDetails(Users provider, Map<String, Object> data, Long expectedVersion) {
         if (provider == null) {
             throw new IllegalArgumentException("provider must not be null");
         }
 
         List<Services> servicesList = sr.findByProvider(provider);
-        if (servicesList == null) {
-            servicesList = new ArrayList<>();
-        }
-
         // If no service exists for this provider, create one so we can store the incoming values
-        if (servicesList.isEmpty()) {
-            Services created = createDefaultServiceForProvider(provider);
-            servicesList.add(created);
+        Services current = servicesList == null || servicesList.isEmpty()
+                ? createDefaultServiceForProvider(provider)
+                : servicesList.get(0);
+        long version = current.getVersion() == null ? 0 : current.getVersion();
+        if (expectedVersion != null && expectedVersion != version) {
+            throw new IllegalStateException("Service was changed by another request (version " + version + "), reload and try again");
         }
 
-        ObjectMapper mapper = new ObjectMapper();
-
-        // Serialize availability if provided
-        String availabilityJson = null;
-        if (data.containsKey("availability")) {
-            try {
-                availabilityJson = mapper.writeValueAsString(data.get("availability"));
-            } catch (JsonProcessingException e) {
-                // fallback to empty object
-                availabilityJson = "{}";
-                e.printStackTrace();
+        Map<String, Object> changes = diff(current, data);
+        Set<String> changed = new LinkedHashSet<>(changes.keySet());
+        boolean written = false;
+
+        if (!changes.isEmpty()) {
+            // the first service (the one GET /service/me shows) carries the version: the check is part of its
+            // UPDATE, so of two requests sent with the same version only the first one to commit writes
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<Services> first = updateOf(cb, changes);
+            Root<Services> firstRoot = first.getRoot();
+            first.where(expectedVersion == null
+                    ? cb.equal(firstRoot.get("id"), current.getId())
+                    : cb.and(cb.equal(firstRoot.get("id"), current.getId()),
+                            cb.equal(cb.coalesce(firstRoot.<Long>get("version"), 0L), expectedVersion)));
+            if (entityManager.createQuery(first).executeUpdate() == 0) {
+                throw new IllegalStateException("Service was changed by another request, reload and try again");
+            }
+            written = true;
+        }
+        // the provider's other services get the same values, as the full update always wrote them;
+        // each is diffed on its own, so one that differs is written even when the first did not change
+        if (servicesList != null) {
+            for (Services other : servicesList) {
+                if (other == current) continue;
+                Map<String, Object> otherChanges = diff(other, data);
+                if (otherChanges.isEmpty()) continue;
+                CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+                CriteriaUpdate<Services> update = updateOf(cb, otherChanges);
+                update.where(cb.equal(update.getRoot().get("id"), other.getId()));
+                entityManager.createQuery(update).executeUpdate();
+                changed.addAll(otherChanges.keySet());
+                written = true;
             }
         }
+        changed.remove("availabilityMask");
 
-        // Description
-        String description = null;
-        if (data.containsKey("description") && data.get("description") != null) {
-            description = data.get("description").toString();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("changed", new ArrayList<>(changed));
+        if (!written) {
+            out.put("version", version);
+            return out;
         }
+        // the loaded rows are stale now
+        if (servicesList != null) servicesList.forEach(entityManager::detach);
+        entityManager.detach(current);
+
+        providerDirectory.refreshAfterCommit(provider.getId());
+        out.put("version", entityManager.createQuery("SELECT s.version FROM Services s WHERE s.id = :id", Long.class)
+                .setParameter("id", current.getId())
+                .getSingleResult());
+        return out;
+    }
 
-        // Category (expecting a String)
-        String category = null;
+    // the columns of service that differ from the fields sent in data, with their new values
+    private Map<String, Object> diff(Services service, Map<String, Object> data) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (data.containsKey("description") && data.get("description") != null) {
+            String description = data.get("description").toString();
+            if (!description.equals(service.getDescription())) changes.put("description", description);
+        }
         if (data.containsKey("category") && data.get("category") != null) {
-            category = data.get("category").toString();
+            String category = data.get("category").toString();
+            if (!category.equals(service.getCategory())) changes.put("category", category);
+        }
+        if (data.containsKey("availability")) {
+            String availability = toJson(data.get("availability"));
+            if (!sameJson(availability, service.getAvailability())) {
+                changes.put("availability", availability);
+                changes.put("availabilityMask", WeeklyAvailability.fromJson(availability));
+            }
+        }
+        Object subObj = data.containsKey("subcategory") ? data.get("subcategory") : data.get("Subcategories");
+        if (subObj != null) {
+            String subcategory = subObj instanceof String ? ((String) subObj).trim() : toJson(subObj);
+            if (!sameJson(subcategory, service.getSubcategory())) changes.put("subcategory", subcategory);
         }
+        return changes;
+    }
 
-        Object subObj = null;
-        if (data.containsKey("subcategory")) {
-            subObj = data.get("subcategory");
-        } else if (data.containsKey("Subcategories")) {
-            subObj = data.get("Subcategories");
+    // SET the changed columns and bump the version; the caller adds the WHERE
+    private static CriteriaUpdate<Services> updateOf(CriteriaBuilder cb, Map<String, Object> changes) {
+        CriteriaUpdate<Services> update = cb.createCriteriaUpdate(Services.class);
+        Root<Services> root = update.from(Services.class);
+        for (Map.Entry<String, Object> c : changes.entrySet()) {
+            update.set(root.get(c.getKey()), c.getValue());
         }
+        update.set(root.<Long>get("version"), cb.sum(cb.coalesce(root.<Long>get("version"), 0L), 1L));
+        return update;
+    }
 
-        String subcategoryJson = null;
-        if (subObj != null) {
-            if (subObj instanceof String) {
-                subcategoryJson = ((String) subObj).trim();
-            } else {
-                // Structured object/array -> serialize to JSON string
-                try {
-                    subcategoryJson = mapper.writeValueAsString(subObj);
-                } catch (JsonProcessingException e) {
-                    // on failure, fallback to empty JSON object
-                    subcategoryJson = "{}";
-                    e.printStackTrace();
-                }
-            }
+    private String toJson(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            // fallback to empty object
+            e.printStackTrace();
+            return "{}";
         }
+    }
 
-        // Update all services for this provider (keeps existing behavior of method)
-        for (Services service : servicesList) {
-            if (availabilityJson != null) {
-                service.setAvailability(availabilityJson);
-            }
-            if (description != null) {
-                service.setDescription(description);
-            }
-            if (category != null) {
-                service.setCategory(category);
-            }
-            if (subcategoryJson != null) {
-                service.setSubcategory(subcategoryJson);
-            }
-            sr.save(service);
+    // equal as JSON (ignoring formatting); plain string comparison when either side is not JSON
+    private boolean sameJson(String a, String b) {
+        if (a == null || b == null) return a == b;
+        try {
+            return MAPPER.readTree(a).equals(MAPPER.readTree(b));
+        } catch (JsonProcessingException e) {
+            return a.equals(b);
         }
     }
-}
\ No newline at end of file
+}
@@ -24,22 +24,14 @@ public class UsersManager {
 	@Autowired
     ServicesRepository sr;
 	
-	// Replace existing method in UsersManager
+	@Autowired
+	IdAllocator ids;
+	
+	@Autowired
+	ProviderDirectory providerDirectory;
+	
 	public String generateNextUserId() {
-	    int max = 0;
-	    // load all users (lightweight for modest user counts). If you prefer, add a repository query to return only ids.
-	    for (Users u : ur.findAll()) {
-	        String id = u.getId();
-	        if (id != null && id.startsWith("U")) {
-	            try {
-	                int n = Integer.parseInt(id.substring(1));
-	                if (n > max) max = n;
-	            } catch (NumberFormatException ignored) {
-	                // ignore non-numeric suffixes
-	            }
-	        }
-	    }
-	    return "U" + (max + 1);
+	    return ids.next(IdAllocator.USER);
 	}
 	
 	public String AddUsers(Users u)
@@ -61,6 +53,7 @@ public class UsersManager {
             service.setAvailability("{}");      
             
             sr.save(service);
+            providerDirectory.refreshAfterCommit(savedUsers.getId());
         }
 		return "200::User Registration Successful";	
 		
@@ -110,9 +103,20 @@ public class UsersManager {
 		    if (user != null) {
 		        user.setPhno(phone);
 		        ur.save(user);
+		        if (user.getRole() == UserRole.PROVIDER) providerDirectory.refreshAfterCommit(user.getId());
 		    }
 		}
 	 
+	 // point comes from the browser; without it the text is parsed when it is a "lat, lng" pair
+	 public void updateLocation(Users user, String location, GeoPoint point) {
+		    if (point == null) point = GeoPoint.tryParse(location);
+		    user.setLocation(location);
+		    user.setLatitude(point == null ? null : point.getLat());
+		    user.setLongitude(point == null ? null : point.getLng());
+		    ur.save(user);
+		    if (user.getRole() == UserRole.PROVIDER) providerDirectory.refreshAfterCommit(user.getId());
+		}
+	 
 	// inside UsersManager.java (or your manager class)
 	 @Transactional
 	 public boolean updatePasswordByEmail(String email, String newPassword) {
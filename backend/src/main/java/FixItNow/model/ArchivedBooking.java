@@ -0,0 +1,115 @@
+package FixItNow.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.persistence.*;
+
+/**
+ * Cold copy of a finished booking (completed, cancelled or expired) moved out
+ * of bookings by BookingArchiver. Users and services are plain id columns, so
+ * the archive never pins rows of the hot tables. Written only by INSERT ...
+ * SELECT, read only through the listing projections.
+ */
+@Entity
+@Table(name = "booking_archive", indexes = {
+        @Index(name = "idx_booking_archive_provider_date", columnList = "provider_id, booking_date, booking_id"),
+        @Index(name = "idx_booking_archive_customer_date", columnList = "customer_id, booking_date, booking_id")
+})
+public class ArchivedBooking {
+
+    @Id
+    @Column(name = "booking_id", updatable = false, nullable = false)
+    private String id;
+
+    @Column(name = "service_id", nullable = false)
+    private String serviceId;
+
+    @Column(name = "provider_id", nullable = false)
+    private String providerId;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Convert(converter = JsonNodeConverter.class)
+    @Column(name = "booked_service", columnDefinition = "JSON")
+    private JsonNode bookedService;
+
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate bookingDate;
+
+    @Column(name = "time_slot", nullable = false)
+    private String timeSlot;
+
+    @Column(name = "slot_start")
+    private Integer slotStart;
+
+    @Column(name = "slot_end")
+    private Integer slotEnd;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
+    private BookingStatus status;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Getters
+
+    public String getId() {
+        return id;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public JsonNode getBookedService() {
+        return bookedService;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public String getTimeSlot() {
+        return timeSlot;
+    }
+
+    public Integer getSlotStart() {
+        return slotStart;
+    }
+
+    public Integer getSlotEnd() {
+        return slotEnd;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,48 @@
+package FixItNow.model;
+
+import java.time.LocalDate;
+
+/**
+ * A booking's place in the provider's calendar (slot bounds in minutes from midnight),
+ * read straight from the slot columns without loading the entity.
+ */
+public class BookedSlot {
+    private final String bookingId;
+    private final LocalDate bookingDate;
+    private final Integer slotStart;
+    private final Integer slotEnd;
+    private final BookingStatus status;
+
+    public BookedSlot(String bookingId, LocalDate bookingDate, Integer slotStart, Integer slotEnd, BookingStatus status) {
+        this.bookingId = bookingId;
+        this.bookingDate = bookingDate;
+        this.slotStart = slotStart;
+        this.slotEnd = slotEnd;
+        this.status = status;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public Integer getSlotStart() {
+        return slotStart;
+    }
+
+    public Integer getSlotEnd() {
+        return slotEnd;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public TimeSlot toTimeSlot() {
+        if (slotStart == null || slotEnd == null) return null;
+        return new TimeSlot(slotStart, slotEnd);
+    }
+}
@@ -2,6 +2,10 @@ package FixItNow.model;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.fasterxml.jackson.databind.JsonNode;
 
 import FixItNow.model.Services;
 import FixItNow.model.Users;
@@ -10,7 +14,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", uniqueConstraints = {
+        // rejects a second booking with the same start; overlaps are rejected by booking_slot_claims
+        @UniqueConstraint(name = "uk_bookings_active_slot", columnNames = "active_slot")
+}, indexes = {
+        @Index(name = "idx_bookings_provider_date", columnList = "provider_id, booking_date, booking_id"),
+        @Index(name = "idx_bookings_customer_date", columnList = "customer_id, booking_date, booking_id"),
+        @Index(name = "idx_bookings_provider_date_slot", columnList = "provider_id, booking_date, slot_start, slot_end"),
+        @Index(name = "idx_bookings_status_date", columnList = "status, booking_date")
+})
 public class Booking {
 
     @Id
@@ -29,19 +41,38 @@ public class Booking {
     @JoinColumn(name = "provider_id", nullable = false)
     private Users provider;
     
-    @Column(columnDefinition = "TEXT") 
-    private String bookedService;
+    // parsed once on load by JsonNodeConverter; listings write the tree straight to the response
+    @Convert(converter = JsonNodeConverter.class)
+    @Column(columnDefinition = "JSON")
+    private JsonNode bookedService;
 
     @Column(nullable = false)
     private LocalDate bookingDate;
 
     @Column(nullable = false)
-    private String timeSlot;
+    private String timeSlot; // as entered by the customer, kept for display
+
+    // parsed slot bounds in minutes from midnight, so the calendar can be range-queried
+    @Column(name = "slot_start")
+    private Integer slotStart;
+
+    @Column(name = "slot_end")
+    private Integer slotEnd;
 
+    // plain VARCHAR rather than a MySQL ENUM, so adding a status needs no ALTER
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
     private BookingStatus status;
 
+    // "providerId|date|startMinute" while the status holds the slot, NULL otherwise
+    @Column(name = "active_slot", length = 64)
+    private String activeSlot;
+
+    // optimistic lock for the paths that still save the whole entity; status changes bump it in SQL
+    @Version
+    private Long version;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -80,11 +111,11 @@ public class Booking {
     }
 
   
-    public String getBookedService() {
+    public JsonNode getBookedService() {
         return bookedService;
     }
 
-    public void setBookedService(String bookedService) {
+    public void setBookedService(JsonNode bookedService) {
         this.bookedService = bookedService;
     }
 
@@ -104,6 +135,24 @@ public class Booking {
         this.timeSlot = timeSlot;
     }
 
+    public Integer getSlotStart() {
+        return slotStart;
+    }
+
+    public Integer getSlotEnd() {
+        return slotEnd;
+    }
+
+    public TimeSlot getSlot() {
+        if (slotStart == null || slotEnd == null) return null;
+        return new TimeSlot(slotStart, slotEnd);
+    }
+
+    public void setSlot(TimeSlot slot) {
+        this.slotStart = slot == null ? null : slot.getStartMinute();
+        this.slotEnd = slot == null ? null : slot.getEndMinute();
+    }
+
     public BookingStatus getStatus() {
         return status;
     }
@@ -112,6 +161,22 @@ public class Booking {
         this.status = status;
     }
 
+    public String getActiveSlot() {
+        return activeSlot;
+    }
+
+    public void setActiveSlot(String activeSlot) {
+        this.activeSlot = activeSlot;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
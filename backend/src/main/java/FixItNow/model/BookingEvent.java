@@ -0,0 +1,144 @@
+package FixItNow.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * Outbox row for a booking change, written in the same transaction as the
+ * change itself. BookingEventDispatcher pushes undispatched rows to the
+ * provider and customer, stamps provider_sent_at / customer_sent_at as each
+ * receives it, and dispatched_at once both have (or delivery gave up).
+ */
+@Entity
+@Table(name = "booking_outbox", indexes = {
+        @Index(name = "idx_booking_outbox_pending", columnList = "dispatched_at, event_id")
+})
+public class BookingEvent {
+
+    public static final String CREATED = "CREATED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String EXPIRED = "EXPIRED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private String bookingId;
+
+    @Column(name = "provider_id", nullable = false)
+    private String providerId;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String type;
+
+    @Column(name = "status", length = 20)
+    private String status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "provider_sent_at")
+    private LocalDateTime providerSentAt;
+
+    @Column(name = "customer_sent_at")
+    private LocalDateTime customerSentAt;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    public BookingEvent() {
+    }
+
+    public BookingEvent(String bookingId, String providerId, String customerId, String type, String status) {
+        this.bookingId = bookingId;
+        this.providerId = providerId;
+        this.customerId = customerId;
+        this.type = type;
+        this.status = status;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(String bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public void setProviderId(String providerId) {
+        this.providerId = providerId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getProviderSentAt() {
+        return providerSentAt;
+    }
+
+    public void setProviderSentAt(LocalDateTime providerSentAt) {
+        this.providerSentAt = providerSentAt;
+    }
+
+    public LocalDateTime getCustomerSentAt() {
+        return customerSentAt;
+    }
+
+    public void setCustomerSentAt(LocalDateTime customerSentAt) {
+        this.customerSentAt = customerSentAt;
+    }
+
+    public LocalDateTime getDispatchedAt() {
+        return dispatchedAt;
+    }
+
+    public void setDispatchedAt(LocalDateTime dispatchedAt) {
+        this.dispatchedAt = dispatchedAt;
+    }
+}
@@ -0,0 +1,98 @@
+package FixItNow.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One line of the admin booking export: booking columns plus the names the
+ * admin console shows, and nothing else from the joined users (no passwords).
+ */
+public class BookingExportRow {
+    private final String bookingId;
+    private final LocalDate bookingDate;
+    private final String timeSlot;
+    private final BookingStatus status;
+    private final JsonNode bookedService;
+    private final LocalDateTime createdAt;
+    private final String providerId;
+    private final String providerName;
+    private final String customerId;
+    private final String customerName;
+    private final String customerLocation;
+    private final String serviceId;
+    private final String serviceCategory;
+
+    public BookingExportRow(String bookingId, LocalDate bookingDate, String timeSlot, BookingStatus status,
+                            JsonNode bookedService, LocalDateTime createdAt,
+                            String providerId, String providerName,
+                            String customerId, String customerName, String customerLocation,
+                            String serviceId, String serviceCategory) {
+        this.bookingId = bookingId;
+        this.bookingDate = bookingDate;
+        this.timeSlot = timeSlot;
+        this.status = status;
+        this.bookedService = bookedService;
+        this.createdAt = createdAt;
+        this.providerId = providerId;
+        this.providerName = providerName;
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.customerLocation = customerLocation;
+        this.serviceId = serviceId;
+        this.serviceCategory = serviceCategory;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public String getTimeSlot() {
+        return timeSlot;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public JsonNode getBookedService() {
+        return bookedService;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerLocation() {
+        return customerLocation;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    public String getServiceCategory() {
+        return serviceCategory;
+    }
+}
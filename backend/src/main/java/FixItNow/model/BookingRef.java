@@ -0,0 +1,53 @@
+package FixItNow.model;
+
+import java.time.LocalDate;
+
+/**
+ * The columns a status change needs (owner ids, current status, slot),
+ * read without loading the booking's user/service graph.
+ */
+public class BookingRef {
+    private final String bookingId;
+    private final String providerId;
+    private final String customerId;
+    private final BookingStatus status;
+    private final LocalDate bookingDate;
+    private final Integer slotStart;
+    private final Integer slotEnd;
+
+    public BookingRef(String bookingId, String providerId, String customerId, BookingStatus status,
+                      LocalDate bookingDate, Integer slotStart, Integer slotEnd) {
+        this.bookingId = bookingId;
+        this.providerId = providerId;
+        this.customerId = customerId;
+        this.status = status;
+        this.bookingDate = bookingDate;
+        this.slotStart = slotStart;
+        this.slotEnd = slotEnd;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public TimeSlot toTimeSlot() {
+        if (slotStart == null || slotEnd == null) return null;
+        return new TimeSlot(slotStart, slotEnd);
+    }
+}
@@ -0,0 +1,42 @@
+package FixItNow.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One half hour of a provider's day taken by a booking that holds its slot.
+ * Bookings are made on this half-hour grid, so a claim never blocks time the
+ * booking does not use (see BookingSlotIndex.requireBookable).
+ * The primary key is "providerId|date|bucket", so two overlapping bookings
+ * cannot both commit, even from different app instances. Rows are written
+ * with the booking and deleted when the booking gives its slot up.
+ */
+@Entity
+@Table(name = "booking_slot_claims", indexes = {
+        @Index(name = "idx_slot_claims_booking", columnList = "booking_id")
+})
+public class BookingSlotClaim {
+
+    public static final int BUCKET_MINUTES = 30;
+
+    @Id
+    @Column(name = "claim_key", length = 64, updatable = false, nullable = false)
+    private String claimKey;
+
+    @Column(name = "booking_id", updatable = false, nullable = false)
+    private String bookingId;
+
+    public BookingSlotClaim() {}
+
+    public BookingSlotClaim(String claimKey, String bookingId) {
+        this.claimKey = claimKey;
+        this.bookingId = bookingId;
+    }
+
+    public String getClaimKey() {
+        return claimKey;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+}
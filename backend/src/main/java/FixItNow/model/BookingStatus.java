@@ -1,6 +1,31 @@
 package FixItNow.model;
 
 public enum BookingStatus {
-    PENDING, CONFIRMED, IN_PROGRESS, COMPLETED, CANCELLED
-}
+    PENDING, CONFIRMED, IN_PROGRESS, COMPLETED, CANCELLED,
+    // set by BookingExpiryJob on PENDING bookings whose date has passed; never requested by users
+    EXPIRED;
+
+    /**
+     * Whether a booking in this status occupies the provider's time slot.
+     */
+    public boolean holdsSlot() {
+        return this == PENDING || this == CONFIRMED || this == IN_PROGRESS;
+    }
 
+    /**
+     * Allowed status changes. COMPLETED, CANCELLED and EXPIRED are final; the provider
+     * dashboard may mark a confirmed job completed without passing IN_PROGRESS.
+     */
+    public boolean canTransitionTo(BookingStatus next) {
+        switch (this) {
+            case PENDING:
+                return next == CONFIRMED || next == CANCELLED;
+            case CONFIRMED:
+                return next == IN_PROGRESS || next == COMPLETED || next == CANCELLED;
+            case IN_PROGRESS:
+                return next == COMPLETED || next == CANCELLED;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package FixItNow.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+/**
+ * Inbox row of a two-party conversation, keyed by the ordered user pair
+ * (userLow < userHigh), with both names and the latest message. Written only by
+ * ConversationRepository.recordMessage, in the same transaction as the message.
+ */
+@Entity
+@Table(name = "conversations", indexes = {
+        // the inbox of a user is one range on each side of the pair
+        @Index(name = "idx_conversations_low_last", columnList = "user_low, last_at"),
+        @Index(name = "idx_conversations_high_last", columnList = "user_high, last_at")
+})
+@IdClass(Conversation.Key.class)
+public class Conversation {
+
+    public static final int PREVIEW_LENGTH = 500;
+
+    @Id
+    @Column(name = "user_low", updatable = false, nullable = false)
+    private String userLow;
+
+    @Id
+    @Column(name = "user_high", updatable = false, nullable = false)
+    private String userHigh;
+
+    @Column(name = "low_name")
+    private String lowName;
+
+    @Column(name = "high_name")
+    private String highName;
+
+    @Column(name = "last_message_id")
+    private String lastMessageId;
+
+    @Column(name = "last_message", length = PREVIEW_LENGTH)
+    private String lastMessage;
+
+    @Column(name = "last_at")
+    private LocalDateTime lastAt;
+
+    public Conversation() {}
+
+    public Conversation(Users a, Users b, String lastMessageId, String lastMessage, LocalDateTime lastAt) {
+        boolean aLow = a.getId().compareTo(b.getId()) <= 0;
+        Users low = aLow ? a : b;
+        Users high = aLow ? b : a;
+        this.userLow = low.getId();
+        this.userHigh = high.getId();
+        this.lowName = low.getName();
+        this.highName = high.getName();
+        this.lastMessageId = lastMessageId;
+        this.lastMessage = preview(lastMessage);
+        this.lastAt = lastAt;
+    }
+
+    public String getUserLow() {
+        return userLow;
+    }
+
+    public String getUserHigh() {
+        return userHigh;
+    }
+
+    public String getLowName() {
+        return lowName;
+    }
+
+    public String getHighName() {
+        return highName;
+    }
+
+    public String getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public String getLastMessage() {
+        return lastMessage;
+    }
+
+    public LocalDateTime getLastAt() {
+        return lastAt;
+    }
+
+    public static String preview(String content) {
+        if (content == null) return null;
+        return content.length() <= PREVIEW_LENGTH ? content : content.substring(0, PREVIEW_LENGTH);
+    }
+
+    public static class Key implements Serializable {
+        private String userLow;
+        private String userHigh;
+
+        public Key() {}
+
+        public Key(String userLow, String userHigh) {
+            this.userLow = userLow;
+            this.userHigh = userHigh;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return Objects.equals(userLow, k.userLow) && Objects.equals(userHigh, k.userHigh);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userLow, userHigh);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package FixItNow.model;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Columns needed by the customer booking list. providerId comes from the
+ * booking's own provider_id column, so no Users row is loaded at all.
+ */
+public class CustomerBookingRow {
+    private final String bookingId;
+    private final LocalDate bookingDate;
+    private final String timeSlot;
+    private final BookingStatus status;
+    private final JsonNode bookedService;
+    private final String providerId;
+
+    public CustomerBookingRow(String bookingId, LocalDate bookingDate, String timeSlot, BookingStatus status,
+                              JsonNode bookedService, String providerId) {
+        this.bookingId = bookingId;
+        this.bookingDate = bookingDate;
+        this.timeSlot = timeSlot;
+        this.status = status;
+        this.bookedService = bookedService;
+        this.providerId = providerId;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public String getTimeSlot() {
+        return timeSlot;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public JsonNode getBookedService() {
+        return bookedService;
+    }
+
+    public String getProviderId() {
+        return providerId;
+    }
+}
@@ -0,0 +1,59 @@
+package FixItNow.model;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A latitude/longitude pair in degrees. Parses the "17.3850, 78.4867" text the
+ * dashboards store in Users.location when reverse geocoding fails.
+ */
+public final class GeoPoint {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final Pattern LAT_LNG = Pattern.compile("^\\s*(-?\\d{1,2}(?:\\.\\d+)?)\\s*,\\s*(-?\\d{1,3}(?:\\.\\d+)?)\\s*$");
+
+    private final double lat;
+    private final double lng;
+
+    public GeoPoint(double lat, double lng) {
+        if (!valid(lat, lng)) throw new IllegalArgumentException("Invalid coordinates " + lat + ", " + lng);
+        this.lat = lat;
+        this.lng = lng;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    public static boolean valid(double lat, double lng) {
+        return lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180;
+    }
+
+    /**
+     * Parse "lat, lng"; returns null for anything else (addresses, blanks, out of range values).
+     */
+    public static GeoPoint tryParse(String text) {
+        if (text == null) return null;
+        Matcher m = LAT_LNG.matcher(text);
+        if (!m.matches()) return null;
+        double lat = Double.parseDouble(m.group(1));
+        double lng = Double.parseDouble(m.group(2));
+        return valid(lat, lng) ? new GeoPoint(lat, lng) : null;
+    }
+
+    /**
+     * Great-circle (haversine) distance in kilometres.
+     */
+    public double distanceKm(double otherLat, double otherLng) {
+        double dLat = Math.toRadians(otherLat - lat);
+        double dLng = Math.toRadians(otherLng - lng);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(otherLat)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,37 @@
+package FixItNow.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One row per id prefix (U, B, S, R). next_value is the first number that has
+ * not been handed out yet; IdAllocator reserves ids from it in blocks.
+ */
+@Entity
+@Table(name = "id_sequences")
+public class IdSequence {
+
+    @Id
+    @Column(name = "prefix", length = 8, updatable = false, nullable = false)
+    private String prefix;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    // Getters and setters
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public Long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
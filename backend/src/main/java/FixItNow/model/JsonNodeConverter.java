@@ -0,0 +1,43 @@
+package FixItNow.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps a JSON column to a Jackson tree. The text is parsed once when the row
+ * is loaded and the entity keeps the tree, so readers never re-parse it.
+ * Legacy values that are not valid JSON come back as {"raw": "..."}, the same
+ * shape the booking listings used to return for them.
+ */
+@Converter
+public class JsonNodeConverter implements AttributeConverter<JsonNode, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Override
+    public String convertToDatabaseColumn(JsonNode node) {
+        if (node == null || node.isNull()) return null;
+        try {
+            return MAPPER.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to serialize JSON column", e);
+        }
+    }
+
+    @Override
+    public JsonNode convertToEntityAttribute(String json) {
+        if (json == null || json.isBlank()) return null;
+        try {
+            return MAPPER.readTree(json);
+        } catch (JsonProcessingException e) {
+            ObjectNode fallback = MAPPER.createObjectNode();
+            fallback.put("raw", json);
+            return fallback;
+        }
+    }
+}
@@ -7,7 +7,10 @@ import jakarta.persistence.PrePersist;
 import java.util.UUID;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        // conversation pages: one range per direction of the pair
+        @Index(name = "idx_messages_pair_sent", columnList = "sender_id, receiver_id, sent_at, message_id")
+})
 public class Message {
 
     @Id
@@ -0,0 +1,71 @@
+package FixItNow.model;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Columns needed by the provider booking list, fetched with a single
+ * booking/customer join instead of hydrating Booking with its eager graph.
+ */
+public class ProviderBookingRow {
+    private final String bookingId;
+    private final LocalDate bookingDate;
+    private final String timeSlot;
+    private final BookingStatus status;
+    private final JsonNode bookedService;
+    private final String customerName;
+    private final String customerEmail;
+    private final String customerPhone;
+    private final String customerLocation;
+
+    public ProviderBookingRow(String bookingId, LocalDate bookingDate, String timeSlot, BookingStatus status,
+                              JsonNode bookedService, String customerName, String customerEmail,
+                              String customerPhone, String customerLocation) {
+        this.bookingId = bookingId;
+        this.bookingDate = bookingDate;
+        this.timeSlot = timeSlot;
+        this.status = status;
+        this.bookedService = bookedService;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.customerPhone = customerPhone;
+        this.customerLocation = customerLocation;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public String getTimeSlot() {
+        return timeSlot;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public JsonNode getBookedService() {
+        return bookedService;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+
+    public String getCustomerLocation() {
+        return customerLocation;
+    }
+}
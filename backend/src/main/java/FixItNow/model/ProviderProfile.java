@@ -0,0 +1,135 @@
+package FixItNow.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable entry of the provider directory: a provider with the fields of
+ * their first service, JSON columns already parsed. The response map served by
+ * GET /users/providers is built once here and shared by every request.
+ */
+public final class ProviderProfile {
+    private final String id;
+    private final String name;
+    private final String email;
+    private final String phone;
+    private final String location;
+    private final Double latitude;
+    private final Double longitude;
+    private final String serviceId;
+    private final String category;
+    private final String description;
+    private final ServicesVerified verified;
+    private final Map<String, Object> availability;
+    private final WeeklyAvailability weeklyAvailability;
+    private final Map<String, Object> subcategory;
+    private final Map<String, Object> view;
+
+    public ProviderProfile(String id, String name, String email, String phone, String location,
+                           Double latitude, Double longitude, String serviceId, String category, String description, ServicesVerified verified,
+                           Map<String, Object> availability, WeeklyAvailability weeklyAvailability, Map<String, Object> subcategory) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.location = location;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.serviceId = serviceId;
+        this.category = category;
+        this.description = description;
+        this.verified = verified;
+        this.availability = availability == null ? Collections.emptyMap() : Collections.unmodifiableMap(availability);
+        this.weeklyAvailability = weeklyAvailability == null ? WeeklyAvailability.EMPTY : weeklyAvailability;
+        this.subcategory = subcategory == null ? Collections.emptyMap() : Collections.unmodifiableMap(subcategory);
+        this.view = Collections.unmodifiableMap(buildView());
+    }
+
+    // same keys (and the same "verifed" key for providers without a service) the endpoint always returned
+    private Map<String, Object> buildView() {
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("id", id);
+        profile.put("name", name);
+        profile.put("location", location);
+        profile.put("phone", phone);
+        profile.put("email", email);
+        if (serviceId != null) {
+            profile.put("description", description == null ? "" : description);
+            profile.put("availability", availability);
+            profile.put("category", category == null ? "" : category);
+            profile.put("verified", verified == null ? "" : verified.name());
+            profile.put("subcategory", subcategory);
+        } else {
+            profile.put("description", "");
+            profile.put("availability", availability);
+            profile.put("category", "");
+            profile.put("verifed", "");
+            profile.put("subcategory", subcategory);
+        }
+        return profile;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public ServicesVerified getVerified() {
+        return verified;
+    }
+
+    public Map<String, Object> getAvailability() {
+        return availability;
+    }
+
+    public WeeklyAvailability getWeeklyAvailability() {
+        return weeklyAvailability;
+    }
+
+    public Map<String, Object> getSubcategory() {
+        return subcategory;
+    }
+
+    /**
+     * The read-only map written to the GET /users/providers response.
+     */
+    public Map<String, Object> asView() {
+        return view;
+    }
+}
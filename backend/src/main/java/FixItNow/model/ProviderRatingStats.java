@@ -0,0 +1,84 @@
+package FixItNow.model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.persistence.*;
+
+/**
+ * Running totals of a provider's reviews, one row per provider. Written only by
+ * ProviderRatingStatsRepository.addReview, in the same transaction as the review.
+ */
+@Entity
+@Table(name = "provider_rating_stats")
+public class ProviderRatingStats {
+
+    @Id
+    @Column(name = "provider_id", updatable = false, nullable = false)
+    private String providerId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+
+    @Column(name = "last_review_at")
+    private LocalDateTime lastReviewAt;
+
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public long[] getHistogram() {
+        return new long[] { stars1, stars2, stars3, stars4, stars5 };
+    }
+
+    public LocalDateTime getLastReviewAt() {
+        return lastReviewAt;
+    }
+
+    /**
+     * The GET /reviews/provider/{id}/summary body. stats is null for a provider without reviews.
+     */
+    public static Map<String, Object> summaryOf(String providerId, ProviderRatingStats stats) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        long count = stats == null ? 0 : stats.reviewCount;
+        long[] histogram = stats == null ? new long[5] : stats.getHistogram();
+        m.put("providerId", providerId);
+        m.put("reviewCount", count);
+        m.put("average", count == 0 ? null : Math.round(stats.ratingSum * 100.0 / count) / 100.0);
+        Map<String, Long> stars = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) stars.put(String.valueOf(i + 1), histogram[i]);
+        m.put("histogram", stars);
+        m.put("lastReviewAt", stats == null || stats.lastReviewAt == null
+                ? null : stats.lastReviewAt.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        return Collections.unmodifiableMap(m);
+    }
+}
@@ -0,0 +1,22 @@
+package FixItNow.model;
+
+/**
+ * A per-provider row count read with a GROUP BY query, e.g. recently completed bookings.
+ */
+public class ProviderTally {
+    private final String providerId;
+    private final long count;
+
+    public ProviderTally(String providerId, Long count) {
+        this.providerId = providerId;
+        this.count = count == null ? 0 : count;
+    }
+
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,50 @@
+package FixItNow.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the public review feed: the review's own columns plus the
+ * customer's name from a join, without loading Booking or Users entities.
+ */
+public class ReviewFeedRow {
+    private final String reviewId;
+    private final LocalDateTime createdAt;
+    private final Integer rating;
+    private final String comment;
+    private final String providerId;
+    private final String customerName;
+
+    public ReviewFeedRow(String reviewId, LocalDateTime createdAt, Integer rating, String comment,
+                         String providerId, String customerName) {
+        this.reviewId = reviewId;
+        this.createdAt = createdAt;
+        this.rating = rating;
+        this.comment = comment;
+        this.providerId = providerId;
+        this.customerName = customerName;
+    }
+
+    public String getReviewId() {
+        return reviewId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Integer getRating() {
+        return rating;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+}
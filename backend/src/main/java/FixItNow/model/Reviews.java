@@ -8,7 +8,11 @@ import FixItNow.model.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        // review feed keyset pages, per provider and overall
+        @Index(name = "idx_reviews_provider_created", columnList = "provider_id, created_at, reviews_id"),
+        @Index(name = "idx_reviews_created", columnList = "created_at, reviews_id")
+})
 public class Reviews {
 
     @Id
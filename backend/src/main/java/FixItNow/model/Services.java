@@ -32,6 +32,15 @@ public class Services {
     @Column(columnDefinition = "TEXT")
     private String availability; // JSON stored as String
 
+    // availability compiled by setAvailability; what booking validation and GET /service/available read
+    @Convert(converter = WeeklyAvailabilityConverter.class)
+    @Column(name = "availability_mask", length = WeeklyAvailability.BYTES)
+    private WeeklyAvailability availabilityMask;
+
+    // bumped by every change; PATCH /service/me returns it and can require it
+    @Version
+    private Long version;
+
 
     // Getters and setters
     
@@ -90,6 +99,15 @@ public class Services {
 
     public void setAvailability(String availability) {
         this.availability = availability;
+        this.availabilityMask = WeeklyAvailability.fromJson(availability);
+    }
+
+    public WeeklyAvailability getAvailabilityMask() {
+        return availabilityMask;
+    }
+
+    public Long getVersion() {
+        return version;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package FixItNow.model;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A [start, end) interval within one day, in minutes from midnight.
+ * Parses what the frontend sends ("14:30", "2:30 PM") as well as explicit
+ * ranges ("10:00-12:00", "9-5"). A bare start time gets the default
+ * booking length the booking modal plans slots with.
+ */
+public final class TimeSlot {
+
+    public static final int DEFAULT_DURATION_MINUTES = 120;
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final Pattern TIME = Pattern.compile("^(\\d{1,2})(?:[:.](\\d{2}))?\\s*(am|pm)?$");
+    private static final Pattern RANGE = Pattern.compile("^(.+?)\\s*(?:-|–|\\bto\\b)\\s*(.+)$");
+
+    private final int startMinute;
+    private final int endMinute;
+
+    public TimeSlot(int startMinute, int endMinute) {
+        if (startMinute < 0 || endMinute > MINUTES_PER_DAY || endMinute <= startMinute) {
+            throw new IllegalArgumentException("Invalid time slot " + startMinute + "-" + endMinute);
+        }
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+    }
+
+    public int getStartMinute() {
+        return startMinute;
+    }
+
+    public int getEndMinute() {
+        return endMinute;
+    }
+
+    public boolean overlaps(TimeSlot other) {
+        return startMinute < other.endMinute && other.startMinute < endMinute;
+    }
+
+    /**
+     * Whether both ends fall on a multiple of minutes.
+     */
+    public boolean isAlignedTo(int minutes) {
+        return startMinute % minutes == 0 && endMinute % minutes == 0;
+    }
+
+    /**
+     * The smallest slot on a grid of the given minutes that covers this one.
+     */
+    public TimeSlot snappedTo(int minutes) {
+        int start = startMinute / minutes * minutes;
+        int end = Math.min((endMinute + minutes - 1) / minutes * minutes, MINUTES_PER_DAY);
+        return start == startMinute && end == endMinute ? this : new TimeSlot(start, end);
+    }
+
+    /**
+     * Parse a slot string; throws IllegalArgumentException when it cannot be understood.
+     */
+    public static TimeSlot parse(String text) {
+        TimeSlot slot = tryParse(text);
+        if (slot == null) throw new IllegalArgumentException("Invalid timeSlot. Use HH:mm or HH:mm-HH:mm");
+        return slot;
+    }
+
+    /**
+     * Parse a slot string, or return null (used for legacy rows that may hold anything).
+     */
+    public static TimeSlot tryParse(String text) {
+        if (text == null) return null;
+        String s = text.trim().toLowerCase();
+        if (s.isEmpty()) return null;
+
+        Matcher range = RANGE.matcher(s);
+        if (range.matches()) {
+            Integer start = minuteOfDay(range.group(1));
+            Integer end = minuteOfDay(range.group(2));
+            if (start == null || end == null) return null;
+            // "9-5" style ranges: an end before the start is in the afternoon
+            if (end <= start && end + 12 * 60 <= MINUTES_PER_DAY && end + 12 * 60 > start) end += 12 * 60;
+            if (end <= start) return null;
+            return new TimeSlot(start, end);
+        }
+
+        Integer start = minuteOfDay(s);
+        if (start == null) return null;
+        return new TimeSlot(start, Math.min(start + DEFAULT_DURATION_MINUTES, MINUTES_PER_DAY));
+    }
+
+    private static Integer minuteOfDay(String text) {
+        Matcher m = TIME.matcher(text.trim());
+        if (!m.matches()) return null;
+        int h = Integer.parseInt(m.group(1));
+        int min = m.group(2) == null ? 0 : Integer.parseInt(m.group(2));
+        String ampm = m.group(3);
+        if (ampm != null) {
+            if (h < 1 || h > 12) return null;
+            if ("pm".equals(ampm) && h != 12) h += 12;
+            if ("am".equals(ampm) && h == 12) h = 0;
+        }
+        if (h > 24 || min > 59 || (h == 24 && min > 0)) return null;
+        return h * 60 + min;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TimeSlot)) return false;
+        TimeSlot other = (TimeSlot) o;
+        return startMinute == other.startMinute && endMinute == other.endMinute;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * startMinute + endMinute;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%02d:%02d-%02d:%02d", startMinute / 60, startMinute % 60, endMinute / 60, endMinute % 60);
+    }
+}
@@ -0,0 +1,159 @@
+package FixItNow.model;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Services.availability compiled into one bit per half hour of the week
+ * (7 x 48 = 336 bits in six longs, Monday 00:00 first). A bit is set when the
+ * whole half hour lies inside an available range, so "is the provider free
+ * for this slot" is a handful of bit tests instead of a JSON parse.
+ *
+ * Understands the shapes the app writes: {"from": "9:00 am", "to": "5:00 pm"}
+ * from the provider dashboard (every day) and {"Monday": "9-5"} per-day ranges.
+ * An empty mask means availability is unknown, not "never available".
+ */
+public final class WeeklyAvailability {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = TimeSlot.MINUTES_PER_DAY / SLOT_MINUTES;
+    public static final int SLOTS_PER_WEEK = 7 * SLOTS_PER_DAY;
+    public static final int BYTES = SLOTS_PER_WEEK / 8;
+    public static final WeeklyAvailability EMPTY = new WeeklyAvailability(new long[(SLOTS_PER_WEEK + 63) / 64]);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final long[] words;
+
+    private WeeklyAvailability(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Compile the availability JSON; anything that cannot be understood contributes no bits.
+     */
+    public static WeeklyAvailability fromJson(String json) {
+        if (json == null || json.isBlank()) return EMPTY;
+        JsonNode root;
+        try {
+            root = MAPPER.readTree(json);
+        } catch (Exception e) {
+            return EMPTY;
+        }
+        if (root == null || !root.isObject()) return EMPTY;
+
+        long[] words = new long[EMPTY.words.length];
+        if (root.hasNonNull("from") && root.hasNonNull("to")) {
+            TimeSlot range = TimeSlot.tryParse(root.get("from").asText() + " - " + root.get("to").asText());
+            if (range != null) {
+                for (DayOfWeek day : DayOfWeek.values()) set(words, day, range);
+            }
+        }
+        for (Map.Entry<String, JsonNode> f : root.properties()) {
+            DayOfWeek day = dayOf(f.getKey());
+            if (day == null || !f.getValue().isTextual()) continue;
+            TimeSlot range = TimeSlot.tryParse(f.getValue().asText());
+            if (range != null) set(words, day, range);
+        }
+        return of(words);
+    }
+
+    /**
+     * Inverse of toBytes(); null or short input gives EMPTY.
+     */
+    public static WeeklyAvailability fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < BYTES) return EMPTY;
+        long[] words = new long[EMPTY.words.length];
+        for (int i = 0; i < BYTES; i++) {
+            words[i / 8] |= (bytes[i] & 0xffL) << (8 * (i % 8));
+        }
+        return of(words);
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[BYTES];
+        for (int i = 0; i < BYTES; i++) {
+            bytes[i] = (byte) (words[i / 8] >>> (8 * (i % 8)));
+        }
+        return bytes;
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /**
+     * Whether every half hour the slot touches on that day is available.
+     */
+    public boolean covers(DayOfWeek day, TimeSlot slot) {
+        int first = index(day, slot.getStartMinute() / SLOT_MINUTES);
+        int last = index(day, (slot.getEndMinute() - 1) / SLOT_MINUTES);
+        for (int i = first; i <= last; i++) {
+            if (!isSet(i)) return false;
+        }
+        return true;
+    }
+
+    public boolean isSet(int slotOfWeek) {
+        return (words[slotOfWeek >>> 6] & (1L << slotOfWeek)) != 0;
+    }
+
+    /**
+     * Bit positions (slot-of-week numbers) a slot on the given day spans, for index lookups.
+     */
+    public static int[] slotsOf(DayOfWeek day, TimeSlot slot) {
+        int first = index(day, slot.getStartMinute() / SLOT_MINUTES);
+        int last = index(day, (slot.getEndMinute() - 1) / SLOT_MINUTES);
+        int[] slots = new int[last - first + 1];
+        for (int i = 0; i < slots.length; i++) slots[i] = first + i;
+        return slots;
+    }
+
+    private static void set(long[] words, DayOfWeek day, TimeSlot range) {
+        // only half hours entirely inside the range
+        int first = (range.getStartMinute() + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        int end = range.getEndMinute() / SLOT_MINUTES;
+        for (int s = first; s < end; s++) {
+            int i = index(day, s);
+            words[i >>> 6] |= 1L << i;
+        }
+    }
+
+    private static int index(DayOfWeek day, int slotOfDay) {
+        return (day.getValue() - 1) * SLOTS_PER_DAY + slotOfDay;
+    }
+
+    private static WeeklyAvailability of(long[] words) {
+        for (long w : words) {
+            if (w != 0) return new WeeklyAvailability(words);
+        }
+        return EMPTY;
+    }
+
+    // "Monday", "mon", "MONDAY"
+    private static DayOfWeek dayOf(String key) {
+        String k = key.trim().toUpperCase(Locale.ROOT);
+        if (k.length() < 3) return null;
+        for (DayOfWeek d : DayOfWeek.values()) {
+            if (d.name().startsWith(k) && (k.length() == 3 || k.length() == d.name().length())) return d;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WeeklyAvailability)) return false;
+        return Arrays.equals(words, ((WeeklyAvailability) o).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
@@ -0,0 +1,22 @@
+package FixItNow.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a WeeklyAvailability as its 42-byte bitmap. NULL (rows not yet
+ * compiled) and EMPTY are kept apart so SchemaMigrations can find the former.
+ */
+@Converter
+public class WeeklyAvailabilityConverter implements AttributeConverter<WeeklyAvailability, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(WeeklyAvailability availability) {
+        return availability == null ? null : availability.toBytes();
+    }
+
+    @Override
+    public WeeklyAvailability convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : WeeklyAvailability.fromBytes(bytes);
+    }
+}
@@ -0,0 +1,65 @@
+package FixItNow.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import FixItNow.model.ArchivedBooking;
+import FixItNow.model.BookingStatus;
+import FixItNow.model.CustomerBookingRow;
+import FixItNow.model.ProviderBookingRow;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, String> {
+
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(booking_id, 2) AS UNSIGNED)), 0) FROM booking_archive WHERE booking_id REGEXP '^B[0-9]+$'", nativeQuery = true)
+    Long findMaxBookingNumber();
+
+    // Same projections, filters and keyset order as BookingRepository.findProviderPage/findCustomerPage,
+    // so a history page can merge both tables
+    @Query("SELECT new FixItNow.model.ProviderBookingRow(a.id, a.bookingDate, a.timeSlot, a.status, a.bookedService,"
+            + " c.name, c.email, c.phno, c.location) FROM ArchivedBooking a JOIN Users c ON c.id = a.customerId"
+            + " WHERE a.providerId = :providerId"
+            + " AND (:status IS NULL OR a.status = :status)"
+            + " AND (:fromDate IS NULL OR a.bookingDate >= :fromDate)"
+            + " AND (:toDate IS NULL OR a.bookingDate <= :toDate)"
+            + " AND (:afterDate IS NULL OR a.bookingDate < :afterDate OR (a.bookingDate = :afterDate AND a.id < :afterId))"
+            + " ORDER BY a.bookingDate DESC, a.id DESC")
+    List<ProviderBookingRow> findProviderPage(@Param("providerId") String providerId,
+                                              @Param("status") BookingStatus status,
+                                              @Param("fromDate") LocalDate fromDate,
+                                              @Param("toDate") LocalDate toDate,
+                                              @Param("afterDate") LocalDate afterDate,
+                                              @Param("afterId") String afterId,
+                                              Pageable page);
+
+    @Query("SELECT new FixItNow.model.CustomerBookingRow(a.id, a.bookingDate, a.timeSlot, a.status, a.bookedService,"
+            + " a.providerId) FROM ArchivedBooking a"
+            + " WHERE a.customerId = :customerId"
+            + " AND (:status IS NULL OR a.status = :status)"
+            + " AND (:fromDate IS NULL OR a.bookingDate >= :fromDate)"
+            + " AND (:toDate IS NULL OR a.bookingDate <= :toDate)"
+            + " AND (:afterDate IS NULL OR a.bookingDate < :afterDate OR (a.bookingDate = :afterDate AND a.id < :afterId))"
+            + " ORDER BY a.bookingDate DESC, a.id DESC")
+    List<CustomerBookingRow> findCustomerPage(@Param("customerId") String customerId,
+                                              @Param("status") BookingStatus status,
+                                              @Param("fromDate") LocalDate fromDate,
+                                              @Param("toDate") LocalDate toDate,
+                                              @Param("afterDate") LocalDate afterDate,
+                                              @Param("afterId") String afterId,
+                                              Pageable page);
+
+    // Copy hot rows into the archive; the caller deletes them from bookings in the same transaction
+    @Modifying
+    @Query(value = "INSERT INTO booking_archive (booking_id, service_id, provider_id, customer_id, booked_service,"
+            + " booking_date, time_slot, slot_start, slot_end, status, created_at, archived_at)"
+            + " SELECT booking_id, service_id, provider_id, customer_id, booked_service,"
+            + " booking_date, time_slot, slot_start, slot_end, status, created_at, NOW()"
+            + " FROM bookings WHERE booking_id IN (:ids)", nativeQuery = true)
+    int copyFromBookings(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,43 @@
+package FixItNow.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import FixItNow.model.BookingEvent;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    // Undispatched rows after a cursor, so a pass does not refetch the ones it left pending
+    @Query("SELECT e FROM BookingEvent e WHERE e.dispatchedAt IS NULL AND e.id > :afterId ORDER BY e.id")
+    List<BookingEvent> findPending(@Param("afterId") long afterId, Pageable page);
+
+    @Modifying
+    @Query("UPDATE BookingEvent e SET e.providerSentAt = :at WHERE e.id IN :ids")
+    int markProviderSent(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE BookingEvent e SET e.customerSentAt = :at WHERE e.id IN :ids")
+    int markCustomerSent(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE BookingEvent e SET e.dispatchedAt = :at WHERE e.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("DELETE FROM BookingEvent e WHERE e.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+
+    // One event per listed booking (its current status), without loading the bookings; used for bulk changes
+    @Modifying
+    @Query(value = "INSERT INTO booking_outbox (booking_id, provider_id, customer_id, event_type, status, created_at)"
+            + " SELECT booking_id, provider_id, customer_id, :type, status, NOW()"
+            + " FROM bookings WHERE booking_id IN (:ids) AND status = :status", nativeQuery = true)
+    int recordFor(@Param("ids") Collection<String> ids, @Param("type") String type, @Param("status") String status);
+}
@@ -1,12 +1,29 @@
 package FixItNow.repository;
 
+import FixItNow.model.BookedSlot;
 import FixItNow.model.Booking;
+import FixItNow.model.BookingExportRow;
+import FixItNow.model.BookingRef;
+import FixItNow.model.BookingStatus;
+import FixItNow.model.CustomerBookingRow;
+import FixItNow.model.ProviderBookingRow;
+import FixItNow.model.ProviderTally;
 import FixItNow.model.Users;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 public interface BookingRepository extends JpaRepository<Booking, String> {
     List<Booking> findByProvider(Users provider);
@@ -19,4 +36,142 @@ public interface BookingRepository extends JpaRepository<Booking, String> {
 
     @Query("SELECT MAX(b.id) FROM Booking b")
     String findMaxBookingId();
-}
\ No newline at end of file
+
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(booking_id, 2) AS UNSIGNED)), 0) FROM bookings WHERE booking_id REGEXP '^B[0-9]+$'", nativeQuery = true)
+    Long findMaxBookingNumber();
+
+    String PROVIDER_ROW = "SELECT new FixItNow.model.ProviderBookingRow(b.id, b.bookingDate, b.timeSlot, b.status, b.bookedService,"
+            + " c.name, c.email, c.phno, c.location) FROM Booking b JOIN b.customer c";
+
+    String CUSTOMER_ROW = "SELECT new FixItNow.model.CustomerBookingRow(b.id, b.bookingDate, b.timeSlot, b.status, b.bookedService,"
+            + " b.provider.id) FROM Booking b";
+
+    // Keyset pages ordered by (bookingDate, id) descending, one joined statement per page;
+    // pass null for any unused filter or for the first page.
+    // Served by idx_bookings_provider_date / idx_bookings_customer_date.
+    @Query(PROVIDER_ROW + " WHERE b.provider.id = :providerId"
+            + " AND (:status IS NULL OR b.status = :status)"
+            + " AND (:fromDate IS NULL OR b.bookingDate >= :fromDate)"
+            + " AND (:toDate IS NULL OR b.bookingDate <= :toDate)"
+            + " AND (:afterDate IS NULL OR b.bookingDate < :afterDate OR (b.bookingDate = :afterDate AND b.id < :afterId))"
+            + " ORDER BY b.bookingDate DESC, b.id DESC")
+    List<ProviderBookingRow> findProviderPage(@Param("providerId") String providerId,
+                                              @Param("status") BookingStatus status,
+                                              @Param("fromDate") LocalDate fromDate,
+                                              @Param("toDate") LocalDate toDate,
+                                              @Param("afterDate") LocalDate afterDate,
+                                              @Param("afterId") String afterId,
+                                              Pageable page);
+
+    @Query(CUSTOMER_ROW + " WHERE b.customer.id = :customerId"
+            + " AND (:status IS NULL OR b.status = :status)"
+            + " AND (:fromDate IS NULL OR b.bookingDate >= :fromDate)"
+            + " AND (:toDate IS NULL OR b.bookingDate <= :toDate)"
+            + " AND (:afterDate IS NULL OR b.bookingDate < :afterDate OR (b.bookingDate = :afterDate AND b.id < :afterId))"
+            + " ORDER BY b.bookingDate DESC, b.id DESC")
+    List<CustomerBookingRow> findCustomerPage(@Param("customerId") String customerId,
+                                              @Param("status") BookingStatus status,
+                                              @Param("fromDate") LocalDate fromDate,
+                                              @Param("toDate") LocalDate toDate,
+                                              @Param("afterDate") LocalDate afterDate,
+                                              @Param("afterId") String afterId,
+                                              Pageable page);
+
+    String SLOT_ROW = "SELECT new FixItNow.model.BookedSlot(b.id, b.bookingDate, b.slotStart, b.slotEnd, b.status) FROM Booking b";
+
+    // Slots on a provider's day in the given statuses; warms BookingSlotIndex
+    @Query(SLOT_ROW + " WHERE b.provider.id = :providerId AND b.bookingDate = :date AND b.status IN :statuses"
+            + " AND b.slotStart IS NOT NULL ORDER BY b.slotStart")
+    List<BookedSlot> findSlotsOnDay(@Param("providerId") String providerId,
+                                    @Param("date") LocalDate date,
+                                    @Param("statuses") Collection<BookingStatus> statuses);
+
+    // Bookings on the provider's day overlapping [start, end) minutes, e.g. 600-720 for 10:00-12:00
+    @Query(SLOT_ROW + " WHERE b.provider.id = :providerId AND b.bookingDate = :date AND b.status IN :statuses"
+            + " AND b.slotStart < :end AND b.slotEnd > :start ORDER BY b.slotStart")
+    List<BookedSlot> findOverlapping(@Param("providerId") String providerId,
+                                     @Param("date") LocalDate date,
+                                     @Param("start") int start,
+                                     @Param("end") int end,
+                                     @Param("statuses") Collection<BookingStatus> statuses);
+
+    // Calendar view over a date range, as an index range scan on idx_bookings_provider_date_slot
+    @Query(SLOT_ROW + " WHERE b.provider.id = :providerId AND b.bookingDate BETWEEN :fromDate AND :toDate"
+            + " AND b.status IN :statuses AND b.slotStart IS NOT NULL ORDER BY b.bookingDate, b.slotStart")
+    List<BookedSlot> findCalendar(@Param("providerId") String providerId,
+                                  @Param("fromDate") LocalDate fromDate,
+                                  @Param("toDate") LocalDate toDate,
+                                  @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("SELECT new FixItNow.model.BookingRef(b.id, b.provider.id, b.customer.id, b.status, b.bookingDate,"
+            + " b.slotStart, b.slotEnd) FROM Booking b WHERE b.id = :id")
+    Optional<BookingRef> findRef(@Param("id") String id);
+
+    // Compare-and-set status change; returns 0 when the booking is no longer in the expected status
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :next, b.version = COALESCE(b.version, 0) + 1"
+            + " WHERE b.id = :id AND b.status = :expected")
+    int transition(@Param("id") String id,
+                   @Param("expected") BookingStatus expected,
+                   @Param("next") BookingStatus next);
+
+    // Same, for a change that gives the time slot up (frees the active_slot unique key)
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :next, b.activeSlot = NULL, b.version = COALESCE(b.version, 0) + 1"
+            + " WHERE b.id = :id AND b.status = :expected")
+    int transitionAndRelease(@Param("id") String id,
+                             @Param("expected") BookingStatus expected,
+                             @Param("next") BookingStatus next);
+
+    // Oldest first, so a run that stops early still makes progress; served by idx_bookings_status_date
+    @Query("SELECT b.id FROM Booking b WHERE b.status = FixItNow.model.BookingStatus.PENDING AND b.bookingDate < :today"
+            + " ORDER BY b.bookingDate, b.id")
+    List<String> findOverduePendingIds(@Param("today") LocalDate today, Pageable page);
+
+    @Query("SELECT MIN(b.bookingDate) FROM Booking b WHERE b.status = FixItNow.model.BookingStatus.PENDING AND b.bookingDate < :today")
+    LocalDate findOldestOverduePendingDate(@Param("today") LocalDate today);
+
+    // Re-checks PENDING, so a booking accepted between the select and this update is left alone
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = FixItNow.model.BookingStatus.EXPIRED, b.activeSlot = NULL,"
+            + " b.version = COALESCE(b.version, 0) + 1"
+            + " WHERE b.id IN :ids AND b.status = FixItNow.model.BookingStatus.PENDING")
+    int expirePending(@Param("ids") Collection<String> ids);
+
+    // Admin export, read forward-only: MIN_VALUE fetch size makes MySQL Connector/J stream rows instead of buffering the result
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new FixItNow.model.BookingExportRow(b.id, b.bookingDate, b.timeSlot, b.status, b.bookedService, b.createdAt,"
+            + " p.id, p.name, c.id, c.name, c.location, s.id, s.category)"
+            + " FROM Booking b JOIN b.provider p JOIN b.customer c JOIN b.service s"
+            + " WHERE (:fromDate IS NULL OR b.bookingDate >= :fromDate)"
+            + " AND (:toDate IS NULL OR b.bookingDate <= :toDate)"
+            + " AND (:status IS NULL OR b.status = :status)"
+            + " AND (:providerId IS NULL OR p.id = :providerId)"
+            + " ORDER BY b.bookingDate, b.id")
+    Stream<BookingExportRow> streamExport(@Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate,
+                                          @Param("status") BookingStatus status,
+                                          @Param("providerId") String providerId);
+
+    // Finished bookings old enough for the archive. Reviews and reports keep a foreign key to their
+    // booking, so bookings that have either stay in the hot table.
+    @Query("SELECT b.id FROM Booking b WHERE b.status IN :statuses AND b.bookingDate < :before"
+            + " AND NOT EXISTS (SELECT 1 FROM Reviews r WHERE r.booking = b)"
+            + " AND NOT EXISTS (SELECT 1 FROM Report rp WHERE rp.booking = b)"
+            + " ORDER BY b.bookingDate, b.id")
+    List<String> findArchivableIds(@Param("statuses") Collection<BookingStatus> statuses,
+                                   @Param("before") LocalDate before,
+                                   Pageable page);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<String> ids);
+
+    // bookings per provider in a status since a date (provider ranking: recently completed jobs)
+    @Query("SELECT new FixItNow.model.ProviderTally(b.provider.id, COUNT(b)) FROM Booking b"
+            + " WHERE b.status = :status AND b.bookingDate >= :since GROUP BY b.provider.id")
+    List<ProviderTally> countByProviderSince(@Param("status") BookingStatus status, @Param("since") LocalDate since);
+}
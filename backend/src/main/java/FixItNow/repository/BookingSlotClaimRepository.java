@@ -0,0 +1,20 @@
+package FixItNow.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import FixItNow.model.BookingSlotClaim;
+
+public interface BookingSlotClaimRepository extends JpaRepository<BookingSlotClaim, String> {
+
+    // Free the claims of the listed bookings that no longer hold their slot (active_slot cleared).
+    // Bookings a bulk change skipped keep theirs.
+    @Modifying
+    @Query("DELETE FROM BookingSlotClaim c WHERE c.bookingId IN :ids"
+            + " AND c.bookingId IN (SELECT b.id FROM Booking b WHERE b.id IN :ids AND b.activeSlot IS NULL)")
+    int deleteReleased(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,39 @@
+package FixItNow.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import FixItNow.model.Conversation;
+import FixItNow.model.ConversationSummary;
+
+public interface ConversationRepository extends JpaRepository<Conversation, Conversation.Key> {
+
+    // Record a message of the pair (low < high); creates the row for their first message.
+    // An older message (e.g. a late retry) leaves the newer preview in place; names are refreshed either way.
+    // last_at is assigned last because MySQL evaluates the assignments left to right.
+    @Modifying
+    @Query(value = "INSERT INTO conversations"
+            + " (user_low, user_high, low_name, high_name, last_message_id, last_message, last_at)"
+            + " VALUES (:low, :high, :lowName, :highName, :messageId, :preview, :at)"
+            + " ON DUPLICATE KEY UPDATE low_name = :lowName, high_name = :highName,"
+            + " last_message_id = CASE WHEN last_at IS NULL OR :at >= last_at THEN :messageId ELSE last_message_id END,"
+            + " last_message = CASE WHEN last_at IS NULL OR :at >= last_at THEN :preview ELSE last_message END,"
+            + " last_at = GREATEST(COALESCE(last_at, :at), :at)", nativeQuery = true)
+    int recordMessage(@Param("low") String low, @Param("high") String high,
+                      @Param("lowName") String lowName, @Param("highName") String highName,
+                      @Param("messageId") String messageId, @Param("preview") String preview,
+                      @Param("at") LocalDateTime at);
+
+    // The inbox of a user, newest conversation first, as seen from their side of the pair
+    @Query("SELECT new FixItNow.model.ConversationSummary("
+            + " CASE WHEN c.userLow = :userId THEN c.userHigh ELSE c.userLow END,"
+            + " CASE WHEN c.userLow = :userId THEN c.highName ELSE c.lowName END,"
+            + " c.lastMessage, c.lastAt)"
+            + " FROM Conversation c WHERE c.userLow = :userId OR c.userHigh = :userId ORDER BY c.lastAt DESC")
+    List<ConversationSummary> findInbox(@Param("userId") String userId);
+}
@@ -0,0 +1,25 @@
+package FixItNow.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import FixItNow.model.IdSequence;
+
+public interface IdSequenceRepository extends JpaRepository<IdSequence, String> {
+
+    // Create the row for a prefix, or move it forward if ids were written without the allocator
+    @Modifying
+    @Query(value = "INSERT INTO id_sequences (prefix, next_value) VALUES (:prefix, :floor) "
+            + "ON DUPLICATE KEY UPDATE next_value = GREATEST(next_value, :floor)", nativeQuery = true)
+    int seed(@Param("prefix") String prefix, @Param("floor") long floor);
+
+    // Reserve a block; the row lock is held until the surrounding transaction commits
+    @Modifying
+    @Query("UPDATE IdSequence s SET s.nextValue = s.nextValue + :size WHERE s.prefix = :prefix")
+    int advance(@Param("prefix") String prefix, @Param("size") long size);
+
+    @Query("SELECT s.nextValue FROM IdSequence s WHERE s.prefix = :prefix")
+    Long findNextValue(@Param("prefix") String prefix);
+}
@@ -1,18 +1,39 @@
 package FixItNow.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import FixItNow.model.Message;
+import FixItNow.model.MessageDTO;
 
 public interface MessageRepository extends JpaRepository<Message, String> {
 
-    @Query("SELECT m FROM Message m WHERE (m.sender.id = :a AND m.receiver.id = :b) OR (m.sender.id = :b AND m.receiver.id = :a) ORDER BY m.sentAt ASC")
-    List<Message> findConversation(@Param("a") String a, @Param("b") String b);
+    // One direction of a conversation, columns only. Conversation pages read from -> to and to -> from
+    // separately and merge, so each query is a single range on idx_messages_pair_sent
+    // (sender_id, receiver_id, sent_at, message_id) that stops after LIMIT rows, with no filesort.
+    String DTO = "SELECT new FixItNow.model.MessageDTO(m.id, m.sender.id, m.receiver.id, m.content, m.sentAt) FROM Message m"
+            + " WHERE m.sender.id = :from AND m.receiver.id = :to";
 
-    // Find all messages where the given user is either sender or receiver, ordered by sentAt desc
-    List<Message> findBySender_IdOrReceiver_IdOrderBySentAtDesc(String senderId, String receiverId);
+    // Newest first
+    @Query(DTO + " ORDER BY m.sentAt DESC, m.id DESC")
+    List<MessageDTO> findDirectionLatest(@Param("from") String from, @Param("to") String to, Pageable page);
+
+    // Older than (beforeAt, beforeId), newest first
+    @Query(DTO + " AND m.sentAt <= :beforeAt AND (m.sentAt < :beforeAt OR m.id < :beforeId)"
+            + " ORDER BY m.sentAt DESC, m.id DESC")
+    List<MessageDTO> findDirectionBefore(@Param("from") String from, @Param("to") String to,
+                                         @Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") String beforeId,
+                                         Pageable page);
+
+    // Newer than (afterAt, afterId), oldest first
+    @Query(DTO + " AND m.sentAt >= :afterAt AND (m.sentAt > :afterAt OR m.id > :afterId)"
+            + " ORDER BY m.sentAt ASC, m.id ASC")
+    List<MessageDTO> findDirectionAfter(@Param("from") String from, @Param("to") String to,
+                                        @Param("afterAt") LocalDateTime afterAt, @Param("afterId") String afterId,
+                                        Pageable page);
 }
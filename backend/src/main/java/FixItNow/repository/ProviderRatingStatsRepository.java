@@ -0,0 +1,32 @@
+package FixItNow.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import FixItNow.model.ProviderRatingStats;
+
+public interface ProviderRatingStatsRepository extends JpaRepository<ProviderRatingStats, String> {
+
+    // 1 when the review has that many stars, else 0 (CASE rather than MySQL's boolean arithmetic, so H2 runs it in tests)
+    String STAR_1 = "CASE WHEN :rating = 1 THEN 1 ELSE 0 END";
+    String STAR_2 = "CASE WHEN :rating = 2 THEN 1 ELSE 0 END";
+    String STAR_3 = "CASE WHEN :rating = 3 THEN 1 ELSE 0 END";
+    String STAR_4 = "CASE WHEN :rating = 4 THEN 1 ELSE 0 END";
+    String STAR_5 = "CASE WHEN :rating = 5 THEN 1 ELSE 0 END";
+
+    // Count one review of the given rating; creates the row for a provider's first review.
+    // The row lock is held until the review's transaction commits, so concurrent reviews add up.
+    @Modifying
+    @Query(value = "INSERT INTO provider_rating_stats"
+            + " (provider_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5, last_review_at)"
+            + " VALUES (:providerId, 1, :rating, " + STAR_1 + ", " + STAR_2 + ", " + STAR_3 + ", " + STAR_4 + ", " + STAR_5 + ", :at)"
+            + " ON DUPLICATE KEY UPDATE review_count = review_count + 1, rating_sum = rating_sum + :rating,"
+            + " stars_1 = stars_1 + " + STAR_1 + ", stars_2 = stars_2 + " + STAR_2 + ", stars_3 = stars_3 + " + STAR_3 + ","
+            + " stars_4 = stars_4 + " + STAR_4 + ", stars_5 = stars_5 + " + STAR_5 + ","
+            + " last_review_at = GREATEST(COALESCE(last_review_at, :at), :at)", nativeQuery = true)
+    int addReview(@Param("providerId") String providerId, @Param("rating") int rating, @Param("at") LocalDateTime at);
+}
@@ -3,9 +3,13 @@ package FixItNow.repository;
 import FixItNow.model.Reviews;
 import FixItNow.model.Users;
 import FixItNow.model.Booking;
+import FixItNow.model.ReviewFeedRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ReviewsRepository extends JpaRepository<Reviews, String> {
@@ -15,4 +19,22 @@ public interface ReviewsRepository extends JpaRepository<Reviews, String> {
 	
 	@Query("SELECT MAX(r.id) FROM Reviews r")
 	String findMaxReviewsId();
+
+	@Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(reviews_id, 2) AS UNSIGNED)), 0) FROM reviews WHERE reviews_id REGEXP '^R[0-9]+$'", nativeQuery = true)
+	Long findMaxReviewsNumber();
+
+	String FEED_ROW = "SELECT new FixItNow.model.ReviewFeedRow(r.id, r.createdAt, r.rating, r.comment, r.provider.id, c.name)"
+			+ " FROM Reviews r JOIN r.customer c";
+
+	// Keyset pages ordered by (createdAt, id) descending; pass null for unused filters or for the first page.
+	// Served by idx_reviews_provider_created / idx_reviews_created.
+	@Query(FEED_ROW + " WHERE (:providerId IS NULL OR r.provider.id = :providerId)"
+			+ " AND (:minRating IS NULL OR r.rating >= :minRating)"
+			+ " AND (:afterAt IS NULL OR r.createdAt < :afterAt OR (r.createdAt = :afterAt AND r.id < :afterId))"
+			+ " ORDER BY r.createdAt DESC, r.id DESC")
+	List<ReviewFeedRow> findFeedPage(@Param("providerId") String providerId,
+	                                 @Param("minRating") Integer minRating,
+	                                 @Param("afterAt") LocalDateTime afterAt,
+	                                 @Param("afterId") String afterId,
+	                                 Pageable page);
 }
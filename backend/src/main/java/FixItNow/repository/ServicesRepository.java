@@ -10,8 +10,15 @@ import FixItNow.model.Users;
 
 public interface ServicesRepository extends JpaRepository<Services, String> {
     List<Services> findByProvider(Users provider);
+
+    // Every provider's services with the provider joined in one statement, in the order findByProvider returns them
+    @Query("SELECT s FROM Services s JOIN FETCH s.provider p WHERE p.role = FixItNow.model.UserRole.PROVIDER ORDER BY s.id")
+    List<Services> findAllOfProviders();
     
     @Query("SELECT MAX(s.id) FROM Services s")
     String findMaxServiceId();
+
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(service_id, 2) AS UNSIGNED)), 0) FROM services WHERE service_id REGEXP '^S[0-9]+$'", nativeQuery = true)
+    Long findMaxServiceNumber();
     
 }
\ No newline at end of file
@@ -29,6 +29,10 @@ public interface UsersRepository extends JpaRepository<Users, String> { // <-- C
     
     @Query("SELECT MAX(u.id) FROM Users u")
     String findMaxUserId();
+
+    // Highest numeric suffix among "U<n>" ids; MAX(u.id) compares strings, so "U9" > "U10"
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(user_id, 2) AS UNSIGNED)), 0) FROM users WHERE user_id REGEXP '^U[0-9]+$'", nativeQuery = true)
+    Long findMaxUserNumber();
     
     
 }
\ No newline at end of file
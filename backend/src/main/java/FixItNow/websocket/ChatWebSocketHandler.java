@@ -95,16 +95,10 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         String outText = mapper.writeValueAsString(out);
 
         // Send to recipient if online
-        WebSocketSession recipientSession = registry.getSession(to);
-        if (recipientSession != null && recipientSession.isOpen()) {
-            recipientSession.sendMessage(new TextMessage(outText));
-        }
+        registry.send(to, outText);
 
         // Also send back to sender (so optimistic pending message gets replaced)
-        WebSocketSession senderSession = registry.getSession(senderId);
-        if (senderSession != null && senderSession.isOpen()) {
-            senderSession.sendMessage(new TextMessage(outText));
-        }
+        registry.send(senderId, outText);
     }
 
     @Override
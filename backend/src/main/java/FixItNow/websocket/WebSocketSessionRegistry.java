@@ -1,48 +1,90 @@
 package FixItNow.websocket;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 
+/**
+ * Open WebSocket sessions by user. A user can hold several at once (a
+ * dashboard's booking feed and an open chat), and frames go to all of them.
+ */
 @Component
 public class WebSocketSessionRegistry {
-    private final ConcurrentMap<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<WebSocketSession>> sessions = new ConcurrentHashMap<>();
 
     public void register(String userId, WebSocketSession session) {
         if (userId == null || session == null) return;
-        sessions.put(userId, session);
+        // added inside compute, so removeBySession cannot drop the set between lookup and add
+        sessions.compute(userId, (k, v) -> {
+            Set<WebSocketSession> open = v == null ? new CopyOnWriteArraySet<>() : v;
+            open.add(session);
+            return open;
+        });
     }
 
-    public void unregister(String userId) {
-        if (userId == null) return;
-        sessions.remove(userId);
-    }
-
-    public WebSocketSession getSession(String userId) {
-        return sessions.get(userId);
+    /**
+     * Send a text frame to every open session of the user. Sends are serialized per
+     * session, since chat replies and booking pushes come from different threads.
+     * Returns false when the user is offline or no send succeeded.
+     */
+    public boolean send(String userId, String text) {
+        Set<WebSocketSession> open = userId == null ? null : sessions.get(userId);
+        if (open == null) return false;
+        boolean sent = false;
+        for (WebSocketSession s : open) {
+            if (!s.isOpen()) continue;
+            try {
+                synchronized (s) {
+                    s.sendMessage(new TextMessage(text));
+                }
+                sent = true;
+            } catch (IOException e) {
+                // this session is broken; the others may still be fine
+            }
+        }
+        return sent;
     }
 
     public boolean isOnline(String userId) {
-        WebSocketSession s = sessions.get(userId);
-        return s != null && s.isOpen();
+        Set<WebSocketSession> open = sessions.get(userId);
+        if (open == null) return false;
+        for (WebSocketSession s : open) {
+            if (s.isOpen()) return true;
+        }
+        return false;
     }
 
     /**
-     * Remove the mapping whose session equals the provided session.
-     * Returns removed userId or null.
+     * Remove the given session from whichever user holds it.
+     * Returns that userId or null.
      */
     public String removeBySession(WebSocketSession session) {
         if (session == null) return null;
-        for (Map.Entry<String, WebSocketSession> e : sessions.entrySet()) {
-            if (e.getValue().equals(session)) {
-                sessions.remove(e.getKey());
-                return e.getKey();
-            }
+        Object uid = session.getAttributes().get("userId");
+        if (uid != null) {
+            String userId = String.valueOf(uid);
+            if (removeFrom(userId, session)) return userId;
+        }
+        for (String userId : sessions.keySet()) {
+            if (removeFrom(userId, session)) return userId;
         }
         return null;
     }
-}
\ No newline at end of file
+
+    // remove and drop the emptied set in one compute, serialized with register's add
+    private boolean removeFrom(String userId, WebSocketSession session) {
+        boolean[] removed = new boolean[1];
+        sessions.computeIfPresent(userId, (k, v) -> {
+            removed[0] = v.remove(session);
+            return v.isEmpty() ? null : v;
+        });
+        return removed[0];
+    }
+}
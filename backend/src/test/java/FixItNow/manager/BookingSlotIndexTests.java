@@ -0,0 +1,54 @@
+package FixItNow.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import FixItNow.model.BookedSlot;
+import FixItNow.model.BookingStatus;
+import FixItNow.model.TimeSlot;
+import FixItNow.repository.BookingRepository;
+
+class BookingSlotIndexTests {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    @Test
+    void indexAndClaimsAgreeOnAnOlderUnalignedSlot() {
+        BookingRepository repository = mock(BookingRepository.class);
+        // written before slots had to be on the half-hour grid
+        when(repository.findSlotsOnDay(eq("U1"), eq(DAY), any()))
+                .thenReturn(List.of(new BookedSlot("B1", DAY, 14 * 60, 14 * 60 + 40, BookingStatus.CONFIRMED)));
+        BookingSlotIndex index = new BookingSlotIndex();
+        ReflectionTestUtils.setField(index, "bookingRepository", repository);
+
+        TimeSlot sharesAHalfHour = TimeSlot.parse("14:30-15:30");
+        TimeSlot after = TimeSlot.parse("15:00-16:00");
+        List<String> held = BookingSlotIndex.claimKeys("U1", DAY, new TimeSlot(14 * 60, 14 * 60 + 40));
+
+        assertEquals("B1", index.tryReserve("U1", DAY, sharesAHalfHour, "B2"));
+        assertFalse(Collections.disjoint(held, BookingSlotIndex.claimKeys("U1", DAY, sharesAHalfHour)));
+
+        assertNull(index.tryReserve("U1", DAY, after, "B3"));
+        assertTrue(Collections.disjoint(held, BookingSlotIndex.claimKeys("U1", DAY, after)));
+    }
+
+    @Test
+    void newSlotsMustBeOnTheHalfHourGrid() {
+        assertThrows(IllegalArgumentException.class, () -> BookingSlotIndex.requireBookable(TimeSlot.parse("14:45-15:30")));
+        assertEquals(TimeSlot.parse("14:30"), BookingSlotIndex.requireBookable(TimeSlot.parse("14:30")));
+    }
+}
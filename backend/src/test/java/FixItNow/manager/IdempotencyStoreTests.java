@@ -0,0 +1,107 @@
+package FixItNow.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class IdempotencyStoreTests {
+
+    @Test
+    void fullStoreNeverDropsARequestStillInFlight() throws Exception {
+        IdempotencyStore store = store(1, 3600);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread first = new Thread(() -> store.execute("U1", "k1", "f", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return ResponseEntity.ok("created");
+        }));
+        first.start();
+        started.await();
+
+        // the only slot is taken by k1 while it runs: a new key is refused instead of evicting it
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, store.execute("U1", "k2", "f", () -> ResponseEntity.ok("other")).getStatusCode());
+
+        release.countDown();
+        first.join();
+        assertEquals("created", store.execute("U1", "k1", "f", () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok("again");
+        }).getBody());
+        assertEquals(1, runs.get());
+
+        // once k1 has finished it is the one to go
+        assertEquals(HttpStatus.OK, store.execute("U1", "k2", "f", () -> ResponseEntity.ok("other")).getStatusCode());
+    }
+
+    @Test
+    void expiredRequestStillInFlightIsKept() throws Exception {
+        IdempotencyStore store = store(10, 0);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread first = new Thread(() -> store.execute("U1", "k1", "f", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return ResponseEntity.ok("created");
+        }));
+        first.start();
+        started.await();
+        Thread.sleep(5);
+
+        // k1 is past the TTL but still running: its retry waits on it instead of running again
+        ReflectionTestUtils.setField(store, "waitMillis", 50L);
+        assertEquals(HttpStatus.CONFLICT, store.execute("U1", "k1", "f", () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok("again");
+        }).getStatusCode());
+        assertEquals(1, runs.get());
+
+        release.countDown();
+        first.join();
+    }
+
+    @Test
+    void fingerprintIgnoresKeyOrderButNotValues() {
+        Map<String, Object> a = new LinkedHashMap<>();
+        a.put("providerId", "U1");
+        a.put("timeSlot", "10:00");
+        Map<String, Object> b = new LinkedHashMap<>();
+        b.put("timeSlot", "10:00");
+        b.put("providerId", "U1");
+        Map<String, Object> c = new LinkedHashMap<>(a);
+        c.put("timeSlot", "11:00");
+
+        assertEquals(IdempotencyStore.fingerprintOf(a), IdempotencyStore.fingerprintOf(b));
+        assertNotEquals(IdempotencyStore.fingerprintOf(a), IdempotencyStore.fingerprintOf(c));
+        assertEquals(64, IdempotencyStore.fingerprintOf(a).length());
+    }
+
+    private static IdempotencyStore store(int maxEntries, long ttlSeconds) {
+        IdempotencyStore store = new IdempotencyStore();
+        ReflectionTestUtils.setField(store, "ttlSeconds", ttlSeconds);
+        ReflectionTestUtils.setField(store, "maxEntries", maxEntries);
+        ReflectionTestUtils.setField(store, "waitMillis", 1000L);
+        return store;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
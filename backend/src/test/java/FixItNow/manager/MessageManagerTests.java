@@ -0,0 +1,149 @@
+package FixItNow.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import FixItNow.model.Conversation;
+import FixItNow.model.ConversationSummary;
+import FixItNow.model.Message;
+import FixItNow.model.MessageDTO;
+import FixItNow.model.UserRole;
+import FixItNow.model.Users;
+import FixItNow.repository.ConversationRepository;
+
+// H2 in MySQL mode, so the native upsert behind saveMessage runs as written
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:messages;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MessageManager.class)
+class MessageManagerTests {
+
+    @Autowired
+    private MessageManager messageManager;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void historyPagesMergeBothDirectionsInOrder() {
+        Users alice = user("U1", "Alice");
+        Users bob = user("U2", "Bob");
+        LocalDateTime t = LocalDateTime.of(2025, 11, 4, 10, 0);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // pairs of messages share a timestamp, so the id breaks the tie
+            boolean fromAlice = i % 3 != 1;
+            String id = "M" + i;
+            message(id, fromAlice ? alice : bob, fromAlice ? bob : alice, t.plusMinutes(i / 2));
+            expected.add(id);
+        }
+        message("M9", alice, user("U3", "Carol"), t.plusMinutes(1));
+        em.clear();
+
+        List<String> seen = new ArrayList<>();
+        String before = null;
+        String newestAfter = null;
+        do {
+            Map<String, Object> page = messageManager.getHistoryPage("U2", "U1", before, null, 3);
+            List<String> ids = ids((List<MessageDTO>) page.get("items"));
+            seen.addAll(0, ids);
+            if (newestAfter == null) newestAfter = (String) page.get("after");
+            before = (String) page.get("before");
+        } while (before != null);
+        assertEquals(expected, seen);
+
+        message("M7", bob, alice, t.plusMinutes(3));
+        message("M8", alice, bob, t.plusMinutes(4));
+        em.clear();
+        Map<String, Object> newer = messageManager.getHistoryPage("U1", "U2", null, newestAfter, 10);
+        assertEquals(List.of("M7", "M8"), ids((List<MessageDTO>) newer.get("items")));
+        Map<String, Object> caughtUp = messageManager.getHistoryPage("U1", "U2", null, (String) newer.get("after"), 10);
+        assertEquals(List.of(), caughtUp.get("items"));
+        assertEquals(newer.get("after"), caughtUp.get("after"));
+    }
+
+    @Test
+    void savingMessagesKeepsOneInboxRowPerPairOnItsNewestMessage() {
+        user("U1", "Alice");
+        user("U2", "Bob");
+        user("U3", "Carol");
+
+        messageManager.saveMessage("U2", "U1", "hi alice");
+        Message last = messageManager.saveMessage("U1", "U2", "hi bob");
+        messageManager.saveMessage("U3", "U1", "hi from carol");
+        em.clear();
+
+        Conversation pair = em.find(Conversation.class, new Conversation.Key("U1", "U2"));
+        assertEquals(last.getId(), pair.getLastMessageId());
+        assertEquals("hi bob", pair.getLastMessage());
+        assertEquals(last.getSentAt(), pair.getLastAt());
+        assertEquals("Alice", pair.getLowName());
+        assertEquals("Bob", pair.getHighName());
+
+        // a late write of an older message leaves the newer preview in place
+        Conversation older = new Conversation(em.find(Users.class, "U2"), em.find(Users.class, "U1"), "M0", "stale",
+                last.getSentAt().minusMinutes(5));
+        conversationRepository.recordMessage(older.getUserLow(), older.getUserHigh(), older.getLowName(), older.getHighName(),
+                older.getLastMessageId(), older.getLastMessage(), older.getLastAt());
+        em.clear();
+        pair = em.find(Conversation.class, new Conversation.Key("U1", "U2"));
+        assertEquals("hi bob", pair.getLastMessage());
+        assertEquals(last.getSentAt(), pair.getLastAt());
+
+        List<ConversationSummary> inbox = messageManager.getConversations("U1");
+        assertEquals(2, inbox.size());
+        assertEquals("U3", inbox.get(0).getPeerId());
+        assertEquals("hi from carol", inbox.get(0).getLastMessage());
+        assertEquals("U2", inbox.get(1).getPeerId());
+        assertEquals("Bob", inbox.get(1).getPeerName());
+    }
+
+    private static List<String> ids(List<MessageDTO> items) {
+        List<String> out = new ArrayList<>();
+        for (MessageDTO m : items) out.add(m.id);
+        return out;
+    }
+
+    private void message(String id, Users from, Users to, LocalDateTime at) {
+        Message m = new Message();
+        m.setId(id);
+        m.setSender(from);
+        m.setReceiver(to);
+        m.setContent("message " + id);
+        em.persist(m);
+        em.flush();
+        // sentAt is a creation timestamp; pin it afterwards
+        em.getEntityManager().createQuery("UPDATE Message m SET m.sentAt = :at WHERE m.id = :id")
+                .setParameter("at", at).setParameter("id", id).executeUpdate();
+    }
+
+    private Users user(String id, String name) {
+        Users u = new Users();
+        u.setId(id);
+        u.setName(name);
+        u.setEmail(id.toLowerCase() + "@test.com");
+        u.setPassword("secret");
+        u.setRole(UserRole.CUSTOMER);
+        return em.persist(u);
+    }
+}
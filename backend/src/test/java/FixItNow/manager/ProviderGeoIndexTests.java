@@ -0,0 +1,119 @@
+package FixItNow.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import FixItNow.model.GeoPoint;
+import FixItNow.model.ProviderProfile;
+import FixItNow.model.ServicesVerified;
+
+class ProviderGeoIndexTests {
+
+    private static final double CELL = 0.5;
+
+    @Test
+    void nearestMatchesABruteForceScan() {
+        Random random = new Random(42);
+        List<ProviderProfile> providers = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            double lat;
+            double lng;
+            switch (i % 4) {
+                case 0: // anywhere
+                    lat = -90 + random.nextDouble() * 180;
+                    lng = -180 + random.nextDouble() * 360;
+                    break;
+                case 1: // near the poles
+                    lat = (random.nextBoolean() ? 1 : -1) * (80 + random.nextDouble() * 10);
+                    lng = -180 + random.nextDouble() * 360;
+                    break;
+                case 2: // on cell edges
+                    lat = -89.5 + random.nextInt(359) * CELL;
+                    lng = -180 + random.nextInt(720) * CELL;
+                    break;
+                default: // either side of the antimeridian
+                    lat = -60 + random.nextDouble() * 120;
+                    lng = (random.nextBoolean() ? 180 : -180) - Math.signum(random.nextDouble() - 0.5) * random.nextDouble() * 2;
+                    lng = Math.max(-180, Math.min(180, lng));
+            }
+            providers.add(provider("U" + i, lat, lng));
+        }
+        ProviderGeoIndex index = index(providers);
+
+        for (int q = 0; q < 300; q++) {
+            GeoPoint point = q % 3 == 0
+                    ? new GeoPoint((random.nextBoolean() ? 1 : -1) * (85 + random.nextDouble() * 5), -180 + random.nextDouble() * 360)
+                    : q % 3 == 1
+                    ? new GeoPoint(-60 + random.nextDouble() * 120, random.nextBoolean() ? 179.9 : -179.9)
+                    : new GeoPoint(-90 + random.nextDouble() * 180, -180 + random.nextDouble() * 360);
+            double radius = 50 + random.nextDouble() * 3000;
+            int k = 1 + random.nextInt(8);
+
+            List<Double> expected = bruteForce(providers, point, radius, k);
+            List<Double> actual = new ArrayList<>();
+            for (Map<String, Object> hit : index.nearest(point, radius, k, null)) actual.add((Double) hit.get("distanceKm"));
+            assertEquals(expected, actual, "query " + q + " at " + point.getLat() + ", " + point.getLng() + " r=" + radius + " k=" + k);
+        }
+    }
+
+    @Test
+    void findsProvidersAcrossTheAntimeridian() {
+        ProviderGeoIndex index = index(List.of(provider("U1", -17.0, 179.95), provider("U2", -17.0, 170.0)));
+
+        List<Map<String, Object>> hits = index.nearest(new GeoPoint(-17.0, -179.95), 50, 5, null);
+
+        assertEquals(1, hits.size());
+        assertEquals("U1", hits.get(0).get("id"));
+    }
+
+    @Test
+    void distanceToAMeridianNeverExceedsTheTrueDistance() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            GeoPoint p = new GeoPoint(-90 + random.nextDouble() * 180, 0);
+            double delta = random.nextDouble() * 180;
+            double lat = -90 + random.nextDouble() * 180;
+            assertTrue(ProviderGeoIndex.distanceToMeridianKm(p.getLat(), delta) <= p.distanceKm(lat, delta) + 1e-6);
+        }
+    }
+
+    private static List<Double> bruteForce(List<ProviderProfile> providers, GeoPoint point, double radius, int k) {
+        List<Double> distances = new ArrayList<>();
+        for (ProviderProfile p : providers) {
+            double d = point.distanceKm(p.getLatitude(), p.getLongitude());
+            if (d <= radius) distances.add(d);
+        }
+        distances.sort(Double::compare);
+        List<Double> out = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, distances.size()); i++) out.add(Math.round(distances.get(i) * 100) / 100.0);
+        return out;
+    }
+
+    private static ProviderGeoIndex index(List<ProviderProfile> providers) {
+        Map<String, ProviderProfile> byId = new LinkedHashMap<>();
+        for (ProviderProfile p : providers) byId.put(p.getId(), p);
+        ProviderDirectory directory = new ProviderDirectory();
+        ProviderDirectory.Snapshot snapshot = new ProviderDirectory.Snapshot(byId);
+        ReflectionTestUtils.setField(directory, "snapshot", snapshot);
+
+        ProviderGeoIndex index = new ProviderGeoIndex();
+        ReflectionTestUtils.setField(index, "directory", directory);
+        ReflectionTestUtils.setField(index, "cellDegrees", CELL);
+        index.register();
+        return index;
+    }
+
+    private static ProviderProfile provider(String id, double lat, double lng) {
+        return new ProviderProfile(id, "Provider " + id, id + "@test.com", null, null, lat, lng,
+                "S" + id, "Plumber", null, ServicesVerified.APPROVED, null, null, null);
+    }
+}
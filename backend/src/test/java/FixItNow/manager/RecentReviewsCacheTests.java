@@ -0,0 +1,53 @@
+package FixItNow.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import FixItNow.model.ReviewFeedRow;
+import FixItNow.repository.ReviewsRepository;
+
+class RecentReviewsCacheTests {
+
+    @Test
+    void appendOfAReviewTheLoadAlreadyReadIsNotDoubled() {
+        ReviewFeedRow older = row("R1", 1);
+        ReviewFeedRow newer = row("R2", 2);
+        ReviewsRepository repository = mock(ReviewsRepository.class);
+        // the load's query already sees R2, whose after-commit append runs only afterwards
+        when(repository.findFeedPage(eq("U1"), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(newer, older));
+        RecentReviewsCache cache = cache(repository, 5);
+
+        assertEquals(List.of(newer, older), cache.newest("U1", 5));
+        cache.append(newer);
+        assertEquals(List.of(newer, older), cache.newest("U1", 5));
+
+        ReviewFeedRow latest = row("R3", 3);
+        cache.append(latest);
+        assertEquals(List.of(latest, newer, older), cache.newest("U1", 5));
+    }
+
+    private static RecentReviewsCache cache(ReviewsRepository repository, int size) {
+        RecentReviewsCache cache = new RecentReviewsCache();
+        ReflectionTestUtils.setField(cache, "reviewsRepository", repository);
+        ReflectionTestUtils.setField(cache, "size", size);
+        ReflectionTestUtils.setField(cache, "maxProviders", 10);
+        cache.init();
+        return cache;
+    }
+
+    private static ReviewFeedRow row(String id, int day) {
+        return new ReviewFeedRow(id, LocalDateTime.of(2030, 1, day, 10, 0), 5, "ok", "U1", "Customer");
+    }
+}
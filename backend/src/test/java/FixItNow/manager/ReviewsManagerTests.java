@@ -0,0 +1,128 @@
+package FixItNow.manager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import FixItNow.model.Booking;
+import FixItNow.model.BookingStatus;
+import FixItNow.model.ProviderRatingStats;
+import FixItNow.model.Services;
+import FixItNow.model.UserRole;
+import FixItNow.model.Users;
+import FixItNow.repository.ProviderRatingStatsRepository;
+
+// H2 in MySQL mode, so the native INSERT ... ON DUPLICATE KEY UPDATE runs as written
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reviews;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ ReviewsManager.class, RatingSummaryCache.class, RecentReviewsCache.class })
+class ReviewsManagerTests {
+
+    @Autowired
+    private ReviewsManager reviewsManager;
+
+    @Autowired
+    private ProviderRatingStatsRepository statsRepository;
+
+    @Autowired
+    private RatingSummaryCache ratingSummaryCache;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockitoBean
+    private ProviderRanking providerRanking;
+
+    // its id seeding uses MySQL's CAST(... AS UNSIGNED), which H2 does not have
+    @MockitoBean
+    private IdAllocator idAllocator;
+
+    private Users provider;
+    private Users customer;
+    private Services service;
+    private int bookingSeq;
+
+    @BeforeEach
+    void setUp() {
+        AtomicInteger ids = new AtomicInteger();
+        when(idAllocator.next(IdAllocator.REVIEW)).thenAnswer(inv -> IdAllocator.REVIEW + ids.incrementAndGet());
+        provider = user("U1", "provider@test.com", UserRole.PROVIDER);
+        customer = user("U2", "customer@test.com", UserRole.CUSTOMER);
+        service = new Services();
+        service.setId("S1");
+        service.setProvider(provider);
+        service.setCategory("Electrician");
+        service.setAvailability("{}");
+        em.persist(service);
+        // each test rolls back, but the cache outlives it
+        ratingSummaryCache.evict(provider.getId());
+    }
+
+    @Test
+    void reviewsAddUpInTheProviderRatingStats() {
+        for (int rating : new int[] { 5, 4, 5, 1 }) {
+            reviewsManager.createReview(booking(), customer.getId(), rating, "ok");
+        }
+        em.clear();
+
+        ProviderRatingStats stats = statsRepository.findById(provider.getId()).orElseThrow();
+        assertEquals(4, stats.getReviewCount());
+        assertEquals(15, stats.getRatingSum());
+        assertArrayEquals(new long[] { 1, 0, 0, 1, 2 }, stats.getHistogram());
+
+        Map<String, Object> summary = reviewsManager.getRatingSummary(provider.getId());
+        assertEquals(4L, summary.get("reviewCount"));
+        assertEquals(3.75, summary.get("average"));
+        assertEquals(Map.of("1", 1L, "2", 0L, "3", 0L, "4", 1L, "5", 2L), summary.get("histogram"));
+    }
+
+    @Test
+    void providerWithoutReviewsHasAnEmptySummary() {
+        Map<String, Object> summary = reviewsManager.getRatingSummary(provider.getId());
+        assertEquals(0L, summary.get("reviewCount"));
+        assertEquals(null, summary.get("average"));
+    }
+
+    private String booking() {
+        bookingSeq++;
+        Booking b = new Booking();
+        b.setId("B" + bookingSeq);
+        b.setService(service);
+        b.setProvider(provider);
+        b.setCustomer(customer);
+        b.setBookingDate(LocalDate.of(2030, 1, 1).plusDays(bookingSeq));
+        b.setTimeSlot("10:00");
+        b.setStatus(BookingStatus.COMPLETED);
+        em.persist(b);
+        return b.getId();
+    }
+
+    private Users user(String id, String email, UserRole role) {
+        Users u = new Users();
+        u.setId(id);
+        u.setName(role == UserRole.PROVIDER ? "Provider" : "Customer");
+        u.setEmail(email);
+        u.setPassword("secret");
+        u.setRole(role);
+        return em.persist(u);
+    }
+}
@@ -0,0 +1,65 @@
+package FixItNow.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import FixItNow.model.ProviderProfile;
+import FixItNow.model.ServicesVerified;
+
+class ServiceSearchIndexTests {
+
+    @TempDir
+    Path indexDir;
+
+    @Test
+    void reopenedIndexCatchesUpWithChangesItMissed() throws Exception {
+        ServiceSearchIndex first = open(List.of(provider("U1", "Plumber", "fix a leaking kitchen tap"),
+                provider("U2", "Painter", "interior walls")));
+        assertEquals(List.of("U1"), ids(first, "leaking tap"));
+        first.close();
+
+        // while the index was closed U1 changed trade and U2 went away
+        ServiceSearchIndex second = open(List.of(provider("U1", "Electrician", "rewiring and sockets")));
+        assertEquals(List.of(), ids(second, "leaking tap"));
+        assertEquals(List.of(), ids(second, "painter"));
+        assertEquals(List.of("U1"), ids(second, "rewiring"));
+        second.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> ids(ServiceSearchIndex index, String text) throws Exception {
+        List<String> out = new ArrayList<>();
+        for (Map<String, Object> item : (List<Map<String, Object>>) index.search(text, 10).get("items")) {
+            out.add((String) item.get("id"));
+        }
+        return out;
+    }
+
+    private ServiceSearchIndex open(List<ProviderProfile> providers) throws Exception {
+        Map<String, ProviderProfile> byId = new LinkedHashMap<>();
+        for (ProviderProfile p : providers) byId.put(p.getId(), p);
+        ProviderDirectory directory = new ProviderDirectory();
+        ReflectionTestUtils.setField(directory, "snapshot", new ProviderDirectory.Snapshot(byId));
+
+        ServiceSearchIndex index = new ServiceSearchIndex();
+        ReflectionTestUtils.setField(index, "directory", directory);
+        ReflectionTestUtils.setField(index, "indexDir", indexDir.toString());
+        // registering with a loaded directory reconciles right away
+        index.open();
+        return index;
+    }
+
+    private static ProviderProfile provider(String id, String category, String description) {
+        return new ProviderProfile(id, "Provider " + id, id + "@test.com", null, null, null, null,
+                "S" + id, category, description, ServicesVerified.APPROVED, null, null, null);
+    }
+}
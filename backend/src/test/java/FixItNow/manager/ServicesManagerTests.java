@@ -0,0 +1,126 @@
+package FixItNow.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import FixItNow.model.Services;
+import FixItNow.model.TimeSlot;
+import FixItNow.model.UserRole;
+import FixItNow.model.Users;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ ServicesManager.class, IdAllocator.class, ProviderDirectory.class })
+class ServicesManagerTests {
+
+    @Autowired
+    private ServicesManager servicesManager;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Users provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new Users();
+        provider.setId("U1");
+        provider.setName("Provider");
+        provider.setEmail("provider@test.com");
+        provider.setPassword("secret");
+        provider.setRole(UserRole.PROVIDER);
+        em.persist(provider);
+
+        Services service = new Services();
+        service.setId("S1");
+        service.setProvider(provider);
+        service.setCategory("Electrician");
+        service.setDescription("Wiring");
+        service.setAvailability("{\"from\": \"9:00 am\", \"to\": \"5:00 pm\"}");
+        em.persist(service);
+        em.flush();
+    }
+
+    @Test
+    void patchWritesOnlyChangedFieldsAndBumpsVersion() {
+        Map<String, Object> result = servicesManager.patchServiceDetails(provider, Map.of(
+                "description", "Wiring",
+                "category", "Plumber",
+                "availability", Map.of("to", "5:00 pm", "from", "9:00 am")), 0L);
+
+        assertEquals(List.of("category"), result.get("changed"));
+        assertEquals(1L, result.get("version"));
+        em.clear();
+        Services reloaded = em.find(Services.class, "S1");
+        assertEquals("Plumber", reloaded.getCategory());
+        assertEquals(1L, reloaded.getVersion());
+    }
+
+    @Test
+    void availabilityPatchRecompilesTheMask() {
+        servicesManager.patchServiceDetails(provider, Map.of("availability", Map.of("from", "6:00 pm", "to", "10:00 pm")), null);
+        em.clear();
+        Services reloaded = em.find(Services.class, "S1");
+        assertTrue(reloaded.getAvailabilityMask().covers(DayOfWeek.MONDAY, TimeSlot.parse("19:00")));
+    }
+
+    @Test
+    void unchangedPatchWritesNothingAndStaleVersionIsRefused() {
+        Map<String, Object> result = servicesManager.patchServiceDetails(provider, Map.of("description", "Wiring"), null);
+        assertEquals(List.of(), result.get("changed"));
+        assertEquals(0L, result.get("version"));
+        assertThrows(IllegalStateException.class,
+                () -> servicesManager.patchServiceDetails(provider, Map.of("description", "New"), 7L));
+    }
+
+    @Test
+    void versionIsCheckedByTheUpdateItself() {
+        // another request commits version 1 after this one has read version 0
+        em.getEntityManager().createQuery("UPDATE Services s SET s.version = 1 WHERE s.id = 'S1'").executeUpdate();
+
+        assertThrows(IllegalStateException.class,
+                () -> servicesManager.patchServiceDetails(provider, Map.of("description", "New"), 0L));
+        em.clear();
+        assertEquals("Wiring", em.find(Services.class, "S1").getDescription());
+    }
+
+    @Test
+    void returnedVersionIsTheOneWritten() {
+        em.getEntityManager().createQuery("UPDATE Services s SET s.version = 4 WHERE s.id = 'S1'").executeUpdate();
+
+        Map<String, Object> result = servicesManager.patchServiceDetails(provider, Map.of("description", "New"), null);
+
+        assertEquals(5L, result.get("version"));
+    }
+
+    @Test
+    void otherServicesAreUpdatedEvenWhenTheFirstIsUnchanged() {
+        Services second = new Services();
+        second.setId("S2");
+        second.setProvider(provider);
+        second.setCategory("Electrician");
+        second.setDescription("Old wiring");
+        second.setAvailability("{}");
+        em.persist(second);
+        em.flush();
+
+        Map<String, Object> result = servicesManager.patchServiceDetails(provider, Map.of("description", "Wiring"), 0L);
+
+        assertEquals(List.of("description"), result.get("changed"));
+        assertEquals(0L, result.get("version"));
+        em.clear();
+        assertEquals("Wiring", em.find(Services.class, "S2").getDescription());
+        assertEquals(1L, em.find(Services.class, "S2").getVersion());
+    }
+}
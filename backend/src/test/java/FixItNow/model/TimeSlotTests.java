@@ -0,0 +1,46 @@
+package FixItNow.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TimeSlotTests {
+
+    @Test
+    void bareStartTimeGetsDefaultDuration() {
+        assertEquals(new TimeSlot(14 * 60 + 30, 16 * 60 + 30), TimeSlot.parse("14:30"));
+        assertEquals(new TimeSlot(14 * 60 + 30, 16 * 60 + 30), TimeSlot.parse("2:30 PM"));
+    }
+
+    @Test
+    void parsesRanges() {
+        assertEquals(new TimeSlot(10 * 60, 12 * 60), TimeSlot.parse("10:00-12:00"));
+        assertEquals(new TimeSlot(9 * 60, 17 * 60), TimeSlot.parse("9-5"));
+        assertEquals(new TimeSlot(9 * 60, 17 * 60), TimeSlot.parse("9am to 5pm"));
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertNull(TimeSlot.tryParse("morning"));
+        assertNull(TimeSlot.tryParse("25:00"));
+        assertNull(TimeSlot.tryParse(""));
+    }
+
+    @Test
+    void adjacentSlotsDoNotOverlap() {
+        TimeSlot morning = TimeSlot.parse("10:00-12:00");
+        assertFalse(morning.overlaps(TimeSlot.parse("12:00-14:00")));
+        assertTrue(morning.overlaps(TimeSlot.parse("11:30")));
+    }
+
+    @Test
+    void snapsOutwardToTheGrid() {
+        assertEquals(new TimeSlot(14 * 60, 15 * 60), TimeSlot.parse("14:10-14:40").snappedTo(30));
+        assertEquals(TimeSlot.parse("14:00-15:30"), TimeSlot.parse("14:00-15:30").snappedTo(30));
+        assertTrue(TimeSlot.parse("14:30").isAlignedTo(30));
+        assertFalse(TimeSlot.parse("14:00-14:40").isAlignedTo(30));
+    }
+}
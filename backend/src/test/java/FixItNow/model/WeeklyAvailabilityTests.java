@@ -0,0 +1,45 @@
+package FixItNow.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+
+import org.junit.jupiter.api.Test;
+
+class WeeklyAvailabilityTests {
+
+    @Test
+    void dashboardFromToAppliesToEveryDay() {
+        WeeklyAvailability week = WeeklyAvailability.fromJson("{\"from\": \"9:00 am\", \"to\": \"5:00 pm\"}");
+        for (DayOfWeek day : DayOfWeek.values()) {
+            assertTrue(week.covers(day, TimeSlot.parse("15:00")));
+            assertFalse(week.covers(day, TimeSlot.parse("16:00")));
+        }
+    }
+
+    @Test
+    void perDayRanges() {
+        WeeklyAvailability week = WeeklyAvailability.fromJson("{\"Monday\": \"9-5\", \"sat\": \"10:00-12:00\"}");
+        assertTrue(week.covers(DayOfWeek.MONDAY, TimeSlot.parse("09:00")));
+        assertFalse(week.covers(DayOfWeek.TUESDAY, TimeSlot.parse("09:00")));
+        assertTrue(week.covers(DayOfWeek.SATURDAY, TimeSlot.parse("10:00")));
+        assertFalse(week.covers(DayOfWeek.SATURDAY, TimeSlot.parse("11:30")));
+    }
+
+    @Test
+    void unusableJsonIsEmpty() {
+        assertTrue(WeeklyAvailability.fromJson("{}").isEmpty());
+        assertTrue(WeeklyAvailability.fromJson("weekdays").isEmpty());
+        assertTrue(WeeklyAvailability.fromJson(null).isEmpty());
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        WeeklyAvailability week = WeeklyAvailability.fromJson("{\"Sunday\": \"18:00-23:30\", \"Wed\": \"0:00-1:00\"}");
+        byte[] bytes = week.toBytes();
+        assertEquals(WeeklyAvailability.BYTES, bytes.length);
+        assertEquals(week, WeeklyAvailability.fromBytes(bytes));
+    }
+}
@@ -0,0 +1,252 @@
+package FixItNow.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import FixItNow.manager.BookingSlotIndex;
+import FixItNow.model.Booking;
+import FixItNow.model.BookingSlotClaim;
+import FixItNow.model.BookingStatus;
+import FixItNow.model.CustomerBookingRow;
+import FixItNow.model.ProviderBookingRow;
+import FixItNow.model.ProviderTally;
+import FixItNow.model.Services;
+import FixItNow.model.TimeSlot;
+import FixItNow.model.UserRole;
+import FixItNow.model.Users;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookingRepositoryTests {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archiveRepository;
+
+    @Autowired
+    private BookingSlotClaimRepository slotClaimRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Users provider;
+    private Users customer;
+    private Services service;
+    private int bookingSeq;
+
+    @BeforeEach
+    void setUp() {
+        provider = user("U1", "provider@test.com", UserRole.PROVIDER);
+        customer = user("U2", "customer@test.com", UserRole.CUSTOMER);
+
+        service = new Services();
+        service.setId("S1");
+        service.setProvider(provider);
+        service.setCategory("Electrician");
+        service.setAvailability("{}");
+        em.persist(service);
+    }
+
+    @Test
+    void providerListingIssuesOneStatementRegardlessOfRowCount() {
+        addBookings(1);
+        long oneRow = statementsFor(() -> bookingRepository.findProviderPage(provider.getId(),
+                null, null, null, null, null, PageRequest.of(0, 50)));
+
+        addBookings(25);
+        long manyRows = statementsFor(() -> {
+            List<ProviderBookingRow> rows = bookingRepository.findProviderPage(provider.getId(),
+                    null, null, null, null, null, PageRequest.of(0, 50));
+            assertEquals(26, rows.size());
+            assertEquals("Customer", rows.get(0).getCustomerName());
+        });
+
+        assertEquals(1, oneRow);
+        assertEquals(oneRow, manyRows);
+    }
+
+    @Test
+    void customerListingIssuesOneStatementRegardlessOfRowCount() {
+        addBookings(1);
+        long oneRow = statementsFor(() -> bookingRepository.findCustomerPage(customer.getId(),
+                null, null, null, null, null, PageRequest.of(0, 50)));
+
+        addBookings(25);
+        long manyRows = statementsFor(() -> {
+            List<CustomerBookingRow> rows = bookingRepository.findCustomerPage(customer.getId(),
+                    null, null, null, null, null, PageRequest.of(0, 50));
+            assertEquals(26, rows.size());
+            assertEquals(provider.getId(), rows.get(0).getProviderId());
+        });
+
+        assertEquals(1, oneRow);
+        assertEquals(oneRow, manyRows);
+    }
+
+    @Test
+    void providerPageIssuesOneStatement() {
+        addBookings(30);
+        long statements = statementsFor(() -> {
+            List<ProviderBookingRow> rows = bookingRepository.findProviderPage(provider.getId(),
+                    null, null, null, null, null, PageRequest.of(0, 11));
+            assertEquals(11, rows.size());
+        });
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void statusTransitionOnlyAppliesFromExpectedStatus() {
+        addBookings(1);
+        em.flush();
+        String id = "B" + bookingSeq;
+
+        assertEquals(1, bookingRepository.transition(id, BookingStatus.PENDING, BookingStatus.CONFIRMED));
+        // a concurrent request that still saw PENDING loses
+        assertEquals(0, bookingRepository.transitionAndRelease(id, BookingStatus.PENDING, BookingStatus.CANCELLED));
+
+        em.clear();
+        Booking reloaded = em.find(Booking.class, id);
+        assertEquals(BookingStatus.CONFIRMED, reloaded.getStatus());
+        assertEquals(1L, reloaded.getVersion());
+    }
+
+    @Test
+    void expiryOnlyTouchesOverduePendingBookings() {
+        addBookings(3);
+        em.flush();
+        bookingRepository.transition("B2", BookingStatus.PENDING, BookingStatus.CONFIRMED);
+        LocalDate today = LocalDate.of(2030, 1, 1).plusDays(3);
+
+        List<String> ids = bookingRepository.findOverduePendingIds(today, PageRequest.of(0, 10));
+        assertEquals(List.of("B1"), ids);
+        assertEquals(1, bookingRepository.expirePending(List.of("B1", "B2")));
+
+        em.clear();
+        assertEquals(BookingStatus.EXPIRED, em.find(Booking.class, "B1").getStatus());
+        assertEquals(BookingStatus.CONFIRMED, em.find(Booking.class, "B2").getStatus());
+        assertEquals(null, bookingRepository.findOldestOverduePendingDate(today));
+    }
+
+    @Test
+    void archivedBookingsMoveOutOfTheHotTableAndStayPageable() {
+        addBookings(3);
+        em.flush();
+        bookingRepository.transition("B1", BookingStatus.PENDING, BookingStatus.CANCELLED);
+        List<BookingStatus> finished = List.of(BookingStatus.COMPLETED, BookingStatus.CANCELLED, BookingStatus.EXPIRED);
+
+        List<String> ids = bookingRepository.findArchivableIds(finished, LocalDate.of(2031, 1, 1), PageRequest.of(0, 10));
+        assertEquals(List.of("B1"), ids);
+        assertEquals(1, archiveRepository.copyFromBookings(ids));
+        assertEquals(1, bookingRepository.deleteByIds(ids));
+        em.clear();
+
+        assertEquals(2, bookingRepository.findProviderPage(provider.getId(),
+                null, null, null, null, null, PageRequest.of(0, 10)).size());
+        List<ProviderBookingRow> archived = archiveRepository.findProviderPage(provider.getId(),
+                null, null, null, null, null, PageRequest.of(0, 10));
+        assertEquals(1, archived.size());
+        assertEquals("Customer", archived.get(0).getCustomerName());
+        assertEquals(BookingStatus.CANCELLED, archived.get(0).getStatus());
+    }
+
+    @Test
+    void completedBookingsAreTalliedPerProvider() {
+        addBookings(3);
+        em.flush();
+        bookingRepository.transition("B1", BookingStatus.PENDING, BookingStatus.COMPLETED);
+        bookingRepository.transition("B3", BookingStatus.PENDING, BookingStatus.COMPLETED);
+
+        List<ProviderTally> completed = bookingRepository.countByProviderSince(BookingStatus.COMPLETED, LocalDate.of(2030, 1, 3));
+        assertEquals(1, completed.size());
+        assertEquals(provider.getId(), completed.get(0).getProviderId());
+        assertEquals(1, completed.get(0).getCount());
+    }
+
+    @Test
+    void overlappingSlotsWithDifferentStartsShareAClaim() {
+        LocalDate day = LocalDate.of(2030, 1, 2);
+        List<String> first = BookingSlotIndex.claimKeys(provider.getId(), day, TimeSlot.parse("14:00-16:00"));
+        List<String> second = BookingSlotIndex.claimKeys(provider.getId(), day, TimeSlot.parse("15:00-17:00"));
+        List<String> adjacent = BookingSlotIndex.claimKeys(provider.getId(), day, TimeSlot.parse("16:00-17:00"));
+
+        assertEquals(4, first.size());
+        assertTrue(first.stream().anyMatch(second::contains));
+        assertFalse(first.stream().anyMatch(adjacent::contains));
+    }
+
+    @Test
+    void claimsAreFreedOnlyForBookingsThatGaveTheirSlotUp() {
+        addBookings(2);
+        for (String id : List.of("B1", "B2")) {
+            Booking b = em.find(Booking.class, id);
+            TimeSlot slot = TimeSlot.parse(b.getTimeSlot());
+            b.setActiveSlot(BookingSlotIndex.slotKey(provider.getId(), b.getBookingDate(), slot));
+            for (String key : BookingSlotIndex.claimKeys(provider.getId(), b.getBookingDate(), slot)) {
+                em.persist(new BookingSlotClaim(key, id));
+            }
+        }
+        em.flush();
+        bookingRepository.transitionAndRelease("B1", BookingStatus.PENDING, BookingStatus.CANCELLED);
+
+        assertEquals(4, slotClaimRepository.deleteReleased(List.of("B1", "B2")));
+        assertEquals(4, slotClaimRepository.count());
+    }
+
+    private long statementsFor(Runnable listing) {
+        em.flush();
+        em.clear();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        listing.run();
+        return stats.getPrepareStatementCount();
+    }
+
+    private void addBookings(int count) {
+        for (int i = 0; i < count; i++) {
+            bookingSeq++;
+            Booking b = new Booking();
+            b.setId("B" + bookingSeq);
+            b.setService(service);
+            b.setProvider(provider);
+            b.setCustomer(customer);
+            b.setBookedService(JsonNodeFactory.instance.objectNode().put("Wiring", 300));
+            b.setBookingDate(LocalDate.of(2030, 1, 1).plusDays(bookingSeq));
+            b.setTimeSlot("10:00");
+            b.setStatus(BookingStatus.PENDING);
+            em.persist(b);
+        }
+    }
+
+    private Users user(String id, String email, UserRole role) {
+        Users u = new Users();
+        u.setId(id);
+        u.setName(role == UserRole.PROVIDER ? "Provider" : "Customer");
+        u.setEmail(email);
+        u.setPassword("secret");
+        u.setRole(role);
+        return em.persist(u);
+    }
+}
@@ -0,0 +1,56 @@
+package FixItNow.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import FixItNow.model.Conversation;
+import FixItNow.model.ConversationSummary;
+import FixItNow.model.Users;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class ConversationRepositoryTests {
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void inboxShowsThePeerOfEachPairNewestFirst() {
+        Users alice = user("U2", "Alice");
+        Users bob = user("U1", "Bob");
+        Users carol = user("U3", "Carol");
+        LocalDateTime t = LocalDateTime.of(2025, 11, 4, 10, 0);
+        em.persist(new Conversation(alice, bob, "M1", "hi bob", t));
+        em.persist(new Conversation(carol, alice, "M2", "hi alice", t.plusMinutes(5)));
+        em.persist(new Conversation(bob, carol, "M3", "not alice's", t.plusMinutes(10)));
+        em.flush();
+
+        List<ConversationSummary> inbox = conversationRepository.findInbox("U2");
+
+        assertEquals(2, inbox.size());
+        assertEquals("U3", inbox.get(0).getPeerId());
+        assertEquals("Carol", inbox.get(0).getPeerName());
+        assertEquals("hi alice", inbox.get(0).getLastMessage());
+        // Alice is the high side of (U1, U2); the peer is still Bob
+        assertEquals("U1", inbox.get(1).getPeerId());
+        assertEquals("Bob", inbox.get(1).getPeerName());
+    }
+
+    private static Users user(String id, String name) {
+        Users u = new Users();
+        u.setId(id);
+        u.setName(name);
+        return u;
+    }
+}
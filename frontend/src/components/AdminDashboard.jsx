@@ -27,8 +27,7 @@ const AdminDashboard = () => {
   const [selectedProvider, setSelectedProvider] = useState(null);
   const [processingServiceId, setProcessingServiceId] = useState(null);
 
-  const [reviews, setReviews] = useState([]);
-  const [loadingReviews, setLoadingReviews] = useState(true);
+  const [ratingSummary, setRatingSummary] = useState(null); // {reviewCount, average} of the selected provider
   const [showReviewsCard, setShowReviewsCard] = useState(false); 
 
   const [adminUser, setAdminUser] = useState(null); 
@@ -139,10 +138,11 @@ const AdminDashboard = () => {
   useEffect(() => {
     const fetchBookings = async () => {
       try {
-        const response = await fetch(`${API_BASE}/bookings/all`);
+        // flat NDJSON export, one booking per line (no user or service entities)
+        const response = await fetch(`${API_BASE}/bookings/all/stream`);
         if (!response.ok) throw new Error("Failed to fetch bookings");
-        const data = await response.json();
-        setBookings(data);
+        const text = await response.text();
+        setBookings(text.split("\n").filter(line => line.trim()).map(line => JSON.parse(line)));
       } catch (error) {
         console.error("Error fetching bookings:", error);
         setBookings([]);
@@ -153,23 +153,25 @@ const AdminDashboard = () => {
 
 
 
+  // rating totals of the provider shown in the modal; the review list itself pages through /reviews/feed
   useEffect(() => {
-    const fetchReviews = async () => {
-      setLoadingReviews(true);
+    const pid = selectedProvider ? getProviderId(selectedProvider) : null;
+    setRatingSummary(null);
+    if (!pid) return;
+    let cancelled = false;
+    const fetchSummary = async () => {
       try {
-        const response = await fetch(`${API_BASE}/reviews/all`);
-        if (!response.ok) throw new Error("Failed to fetch reviews");
+        const response = await fetch(`${API_BASE}/reviews/provider/${encodeURIComponent(pid)}/summary`);
+        if (!response.ok) throw new Error("Failed to fetch rating summary");
         const data = await response.json();
-        setReviews(data);
+        if (!cancelled) setRatingSummary(data);
       } catch (error) {
-        console.error("Error fetching reviews:", error);
-        setReviews([]);
-      } finally {
-        setLoadingReviews(false);
+        console.error("Error fetching rating summary:", error);
       }
     };
-    fetchReviews();
-  }, []);
+    fetchSummary();
+    return () => { cancelled = true; };
+  }, [selectedProvider]);
 
 
   useEffect(() => {
@@ -420,20 +422,6 @@ const AdminDashboard = () => {
   };
 
 
-  const reviewsMap = useMemo(() => {
-    const map = {};
-    if (!Array.isArray(reviews)) return map;
-    for (const r of reviews) {
-      const pid = r.provider_id ?? r.providerId ?? r.provider?.id;
-      if (!pid) continue;
-      const rating = Number(r.rating) || 0;
-      if (!map[pid]) map[pid] = { count: 0, sum: 0 };
-      map[pid].count += 1;
-      map[pid].sum += rating;
-    }
-    return map;
-  }, [reviews]);
-
   useEffect(() => {
     if (!selectedProvider) setShowReviewsCard(false);
   }, [selectedProvider]);
@@ -828,11 +816,11 @@ const AdminDashboard = () => {
                     title="See reviews"
                   >
                     <FaStar className="star-icon" />
-                    {/* provider stats from map */}
+                    {/* provider totals from the rating summary */}
                     {(() => {
-                      const pid = getProviderId(selectedProvider);
-                      const stats = reviewsMap[pid] || { count: 0, sum: 0 };
-                      return `${stats.count ? (stats.sum / stats.count).toFixed(1) : "0.0"} (${stats.count} reviews)`;
+                      const count = ratingSummary?.reviewCount || 0;
+                      const average = ratingSummary?.average;
+                      return `${average != null ? Number(average).toFixed(1) : "0.0"} (${count} reviews)`;
                     })()}
                   </div>
 
@@ -950,11 +938,11 @@ const AdminDashboard = () => {
               </thead>
               <tbody>
                 {bookings.map((b, i) => (
-                  <tr key={i}>
-                    <td>{b.id}</td>
-                    <td>{b.customer.name}</td>
-                    <td>{b.provider.name}</td>
-                    <td>{b.service.category}</td>
+                  <tr key={b.bookingId || i}>
+                    <td>{b.bookingId}</td>
+                    <td>{b.customerName}</td>
+                    <td>{b.providerName}</td>
+                    <td>{b.serviceCategory}</td>
                     <td>
                       <span className={`status ${b.status.replace(" ", "").toLowerCase()}`}>{b.status}</span>
                     </td>
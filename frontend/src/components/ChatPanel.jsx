@@ -34,6 +34,9 @@ function normalizeId(raw) {
 const ChatPanel = ({ currentUserId, peerId, peerName = "Peer", onBack }) => {
   const [connected, setConnected] = useState(false);
   const [messages, setMessages] = useState([]); // { id, from, to, content, sentAt, pending? }
+  const [olderCursor, setOlderCursor] = useState(null); // "before" cursor of the oldest loaded page
+  const [loadingOlder, setLoadingOlder] = useState(false);
+  const skipScrollRef = useRef(false);
   const [input, setInput] = useState("");
   const [status, setStatus] = useState("");
   const wsRef = useRef(null);
@@ -61,6 +64,10 @@ const ChatPanel = ({ currentUserId, peerId, peerName = "Peer", onBack }) => {
         setStatus(String(data.message || ""));
         return;
       }
+      if (data.type === "booking") {
+        // booking push, not a chat message; the dashboards handle it (useBookingEvents)
+        return;
+      }
 
       const incoming = mapServerMessage(data);
 
@@ -138,39 +145,69 @@ const ChatPanel = ({ currentUserId, peerId, peerName = "Peer", onBack }) => {
     };
   }, []); // run once on mount
 
-  // fetch message history
-  useEffect(() => {
+  // fetch one page of history; without a cursor this is the newest page
+  const fetchHistoryPage = (before) => {
     const token = localStorage.getItem("token");
-    const uid = myId;
-    if (!uid || !peerId) {
-      console.log("[ChatPanel] skipping history fetch - missing uid or peerId", { uid, peerId });
-      return;
-    }
-
-    const histUrl = `${API_BASE}/api/chat/history?userA=${encodeURIComponent(uid)}&userB=${encodeURIComponent(peerId)}`;
+    let histUrl = `${API_BASE}/api/chat/history?userA=${encodeURIComponent(myId)}&userB=${encodeURIComponent(peerId)}`;
+    if (before) histUrl += `&before=${encodeURIComponent(before)}`;
     console.log("[ChatPanel] fetching history", histUrl);
-    fetch(histUrl, {
+    return fetch(histUrl, {
       headers: token ? { Authorization: `Bearer ${token}` } : undefined,
     })
       .then((res) => {
         if (!res.ok) throw new Error(`History fetch failed ${res.status}`);
         return res.json();
       })
-      .then((arr) => {
-        const mapped = (arr || []).map((m) => {
+      .then((page) => {
+        const mapped = ((page && page.items) || []).map((m) => {
           const mm = mapServerMessage(m);
           return { id: mm.id || `${Math.random().toString(36).slice(2)}`, from: mm.from, to: mm.to, content: mm.content, sentAt: mm.sentAt };
         });
+        return { mapped, before: page ? page.before : null };
+      });
+  };
+
+  // fetch message history
+  useEffect(() => {
+    const uid = myId;
+    if (!uid || !peerId) {
+      console.log("[ChatPanel] skipping history fetch - missing uid or peerId", { uid, peerId });
+      return;
+    }
+
+    fetchHistoryPage(null)
+      .then(({ mapped, before }) => {
         console.log("[ChatPanel] history loaded, messages:", mapped.length);
         setMessages(mapped);
+        setOlderCursor(before);
       })
       .catch((err) => {
         console.error("Failed to load history", err);
       });
   }, [peerId, myId]);
 
+  const loadOlder = () => {
+    if (!olderCursor || loadingOlder) return;
+    setLoadingOlder(true);
+    fetchHistoryPage(olderCursor)
+      .then(({ mapped, before }) => {
+        skipScrollRef.current = true;
+        setMessages(prev => [...mapped, ...prev]);
+        setOlderCursor(before);
+      })
+      .catch((err) => {
+        console.error("Failed to load older messages", err);
+      })
+      .finally(() => setLoadingOlder(false));
+  };
+
   // scroll to bottom
   useEffect(() => {
+    // older messages are prepended; stay where the user is reading
+    if (skipScrollRef.current) {
+      skipScrollRef.current = false;
+      return;
+    }
     messagesEndRef.current?.scrollIntoView({ behavior: "smooth" });
   }, [messages]);
 
@@ -221,6 +258,11 @@ const ChatPanel = ({ currentUserId, peerId, peerName = "Peer", onBack }) => {
       </div>
 
       <div className="chat-messages">
+        {olderCursor && (
+          <button className="chat-load-older" onClick={loadOlder} disabled={loadingOlder}>
+            {loadingOlder ? "Loading..." : "Load earlier messages"}
+          </button>
+        )}
         {messages
           .filter((m) => m)
           .map((m, i) => {
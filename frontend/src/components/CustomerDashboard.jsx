@@ -3,6 +3,7 @@ import { FaMapMarkerAlt, FaSearch, FaTools, FaStar, FaPhone, FaEnvelope, FaFaceb
 import './CustomerDashboard.css';
 import ProviderModal from "./ProviderModal";
 import ChatPanel from "./ChatPanel";
+import useBookingEvents from "./useBookingEvents";
 import Sidebar from "./Sidebar"
 
 import { MapContainer, TileLayer, Marker, Popup } from 'react-leaflet';
@@ -14,6 +15,9 @@ import markerShadow from 'leaflet/dist/images/marker-shadow.png';
 
 export const API_BASE = process.env.REACT_APP_API_URL || "http://localhost:8087";
 
+// bookings fetched per page of the dashboard lists
+const BOOKINGS_PAGE_SIZE = 20;
+
 delete L.Icon.Default.prototype._getIconUrl;
 L.Icon.Default.mergeOptions({
   iconRetinaUrl: markerIcon2x,
@@ -117,14 +121,14 @@ const CustomerDashboard = () => {
               setLocation(locationText);
               setLocationInput(locationText);
               setIsLoadingLocation(false);
-              saveLocationToBackend(locationText);
+              saveLocationToBackend(locationText, { lat, lng });
             })
             .catch(err => {
               const locationText = `${lat.toFixed(4)}, ${lng.toFixed(4)}`;
               setLocation(locationText);
               setLocationInput(locationText);
               setIsLoadingLocation(false);
-              saveLocationToBackend(locationText);
+              saveLocationToBackend(locationText, { lat, lng });
             });
         },
         (error) => {
@@ -141,27 +145,75 @@ const CustomerDashboard = () => {
 
   const [customerBookings, setCustomerBookings] = useState([]);
 
-  useEffect(() => {
-    const token = localStorage.getItem('token');
-    if (!token) return;
+  const [bookingsCursor, setBookingsCursor] = useState(null);
+  const [loadingMoreBookings, setLoadingMoreBookings] = useState(false);
 
-    fetch(`${API_BASE}/bookings/customer/me`, {
+  // one keyset page of /bookings/customer/me, newest bookingDate first; cursor null = first page
+  const fetchCustomerBookingPage = (cursor) => {
+    const token = localStorage.getItem('token');
+    let url = `${API_BASE}/bookings/customer/me?limit=${BOOKINGS_PAGE_SIZE}`;
+    if (cursor) url += `&cursor=${encodeURIComponent(cursor)}`;
+    return fetch(url, {
       method: 'GET',
       headers: {
         'Authorization': `Bearer ${token}`,
         'Content-Type': 'application/json',
       },
     })
-      .then(res => res.ok ? res.json() : Promise.reject('Failed to fetch bookings'))
-      .then(data => {
-        setCustomerBookings(data); // Array of bookings received from backend
+      .then(res => res.ok ? res.json() : Promise.reject('Failed to fetch bookings'));
+  };
+
+  const loadCustomerBookings = () => {
+    const token = localStorage.getItem('token');
+    if (!token) return;
+    fetchCustomerBookingPage(null)
+      .then(page => {
+        setCustomerBookings(page.items || []);
+        setBookingsCursor(page.nextCursor || null);
       })
       .catch(err => {
         console.error('Error fetching customer bookings:', err);
         setCustomerBookings([]);
+        setBookingsCursor(null);
       });
+  };
+
+  const loadMoreCustomerBookings = () => {
+    if (!bookingsCursor || loadingMoreBookings) return;
+    setLoadingMoreBookings(true);
+    fetchCustomerBookingPage(bookingsCursor)
+      .then(page => {
+        setCustomerBookings(prev => [...prev, ...(page.items || [])]);
+        setBookingsCursor(page.nextCursor || null);
+      })
+      .catch(err => console.error('Error fetching more customer bookings:', err))
+      .finally(() => setLoadingMoreBookings(false));
+  };
+
+  const loadMoreBookingsButton = bookingsCursor && (
+    <button className="load-more-bookings-btn" onClick={loadMoreCustomerBookings} disabled={loadingMoreBookings}>
+      {loadingMoreBookings ? 'Loading...' : 'Load more bookings'}
+    </button>
+  );
+
+  useEffect(() => {
+    loadCustomerBookings();
   }, []);
 
+  // pushed booking changes: a status change is applied in place, anything else (a new booking) refetches
+  useBookingEvents((e) => {
+    const known = (customerBookings || []).some(b => String(b.bookingId ?? b.id) === String(e.bookingId));
+    if (e.event === 'STATUS_CHANGED' || e.event === 'EXPIRED') {
+      if (known) {
+        setCustomerBookings(prev => prev.map(b =>
+          String(b.bookingId ?? b.id) === String(e.bookingId) ? { ...b, status: e.status } : b
+        ));
+        return;
+      }
+    }
+    loadCustomerBookings();
+  }, loadCustomerBookings);
+
 
   useEffect(() => {
     const token = localStorage.getItem('token');
@@ -568,7 +620,7 @@ const handleConnect = (provider, bookingDate, selectedServicesFromModal, selecte
     alert("Phone number saved!");
   };
 
-  const saveLocationToBackend = async (locationText) => {
+  const saveLocationToBackend = async (locationText, coords) => {
     const token = localStorage.getItem('token');
     if (!token) {
       alert('No token found. Please login.');
@@ -581,7 +633,8 @@ const handleConnect = (provider, bookingDate, selectedServicesFromModal, selecte
           'Content-Type': 'application/json',
           'Authorization': `Bearer ${token}`,
         },
-        body: JSON.stringify({ location: locationText }),
+        // coordinates from the browser, when known, so the backend need not parse the address
+        body: JSON.stringify(coords ? { location: locationText, lat: coords.lat, lng: coords.lng } : { location: locationText }),
       });
       if (!response.ok) throw new Error('Failed to save location');
       // optionally show a success message here
@@ -918,13 +971,13 @@ const handleConnect = (provider, bookingDate, selectedServicesFromModal, selecte
             </div>
             <h2 className="dashboard-header-bold-white">Past Bookings</h2>
             <div className="providers-grid">
-              {customerBookings.filter(booking => booking.status === "COMPLETED" || booking.status === "CANCELLED").length === 0 ? (
+              {customerBookings.filter(booking => booking.status === "COMPLETED" || booking.status === "CANCELLED" || booking.status === "EXPIRED").length === 0 ? (
                 <div className="no-bookings-text">
                   No past bookings.
                 </div>
               ) : (
                 customerBookings
-                .filter(booking => booking.status === "COMPLETED" || booking.status === "CANCELLED")
+                .filter(booking => booking.status === "COMPLETED" || booking.status === "CANCELLED" || booking.status === "EXPIRED")
                 .map((booking, idx) => {
                   const provider = serviceProviders.find(p => p.id === booking.providerId);
                   if (!provider) return null; // skip if provider not found
@@ -943,6 +996,7 @@ const handleConnect = (provider, bookingDate, selectedServicesFromModal, selecte
                 })
               )}
             </div>
+            {loadMoreBookingsButton}
           </div>
         )}
 
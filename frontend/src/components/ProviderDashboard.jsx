@@ -3,10 +3,14 @@ import { FaMapMarkerAlt, FaUserCircle, FaPhone, FaEnvelope, FaHome, FaCalendarAl
 import './ProviderDashboard.css';
 import CustomerWideCard from './CustomerWideCard';
 import ChatPanel from './ChatPanel';
+import useBookingEvents from './useBookingEvents';
 import Sidebar from "./Sidebar"
 
 export const API_BASE = process.env.REACT_APP_API_URL || "http://localhost:8087";
 
+// bookings fetched per page of the dashboard lists
+const BOOKINGS_PAGE_SIZE = 20;
+
 const initialProvider = {
   rating: 4.6,
   reviews: [
@@ -161,7 +165,7 @@ const ProviderDashboard = () => {
 
 
   //save location to backend
-  const saveLocationToBackend = async (locationText) => {
+  const saveLocationToBackend = async (locationText, coords) => {
     const token = localStorage.getItem('token');
     if (!token) {
       alert('No token found. Please login.');
@@ -174,7 +178,8 @@ const ProviderDashboard = () => {
           'Content-Type': 'application/json',
           'Authorization': `Bearer ${token}`,
         },
-        body: JSON.stringify({ location: locationText }),
+        // coordinates from the browser, when known, so the backend need not parse the address
+        body: JSON.stringify(coords ? { location: locationText, lat: coords.lat, lng: coords.lng } : { location: locationText }),
       });
       if (!response.ok) throw new Error('Failed to save location');
       // optionally show a success message here
@@ -216,26 +221,75 @@ const ProviderDashboard = () => {
   const [selectedPeerName, setSelectedPeerName] = useState('');
   const [loadingConversations, setLoadingConversations] = useState(false);
 
-  useEffect(() => {
+  const [bookingsCursor, setBookingsCursor] = useState(null);
+  const [loadingMoreBookings, setLoadingMoreBookings] = useState(false);
+
+  // one keyset page of /bookings/provider/me, newest bookingDate first; cursor null = first page
+  const fetchProviderBookingPage = (cursor) => {
     const token = localStorage.getItem('token');
-    if (!token) return;
-    fetch(`${API_BASE}/bookings/provider/me`, {
+    let url = `${API_BASE}/bookings/provider/me?limit=${BOOKINGS_PAGE_SIZE}`;
+    if (cursor) url += `&cursor=${encodeURIComponent(cursor)}`;
+    return fetch(url, {
       method: 'GET',
       headers: {
         'Authorization': `Bearer ${token}`,
         'Content-Type': 'application/json',
       },
     })
-      .then(res => res.ok ? res.json() : Promise.reject('Failed to fetch bookings'))
-      .then(data => {
-        setProviderBookings(data); // Array of bookings as received from backend
+      .then(res => res.ok ? res.json() : Promise.reject('Failed to fetch bookings'));
+  };
+
+  const loadProviderBookings = () => {
+    const token = localStorage.getItem('token');
+    if (!token) return;
+    fetchProviderBookingPage(null)
+      .then(page => {
+        setProviderBookings(page.items || []);
+        setBookingsCursor(page.nextCursor || null);
       })
       .catch(err => {
         console.error('Error fetching provider bookings:', err);
         setProviderBookings([]);
+        setBookingsCursor(null);
       });
+  };
+
+  const loadMoreProviderBookings = () => {
+    if (!bookingsCursor || loadingMoreBookings) return;
+    setLoadingMoreBookings(true);
+    fetchProviderBookingPage(bookingsCursor)
+      .then(page => {
+        setProviderBookings(prev => [...prev, ...(page.items || [])]);
+        setBookingsCursor(page.nextCursor || null);
+      })
+      .catch(err => console.error('Error fetching more provider bookings:', err))
+      .finally(() => setLoadingMoreBookings(false));
+  };
+
+  const loadMoreBookingsButton = bookingsCursor && (
+    <button className="load-more-bookings-btn" onClick={loadMoreProviderBookings} disabled={loadingMoreBookings}>
+      {loadingMoreBookings ? 'Loading...' : 'Load more bookings'}
+    </button>
+  );
+
+  useEffect(() => {
+    loadProviderBookings();
   }, []);
 
+  // pushed booking changes: a status change is applied in place, anything else (a new booking) refetches
+  useBookingEvents((e) => {
+    const known = (providerBookings || []).some(b => String(b.bookingId ?? b.id) === String(e.bookingId));
+    if (e.event === 'STATUS_CHANGED' || e.event === 'EXPIRED') {
+      if (known) {
+        setProviderBookings(prev => prev.map(b =>
+          String(b.bookingId ?? b.id) === String(e.bookingId) ? { ...b, status: e.status } : b
+        ));
+        return;
+      }
+    }
+    loadProviderBookings();
+  }, loadProviderBookings);
+
 
 useEffect(() => {
   const token = localStorage.getItem('token');
@@ -361,7 +415,7 @@ useEffect(() => {
               setIsLoadingLocation(false);
 
               // Save location to backend
-              saveLocationToBackend(locationText);
+              saveLocationToBackend(locationText, { lat, lng });
             })
             .catch(err => {
               const locationText = `${lat.toFixed(4)}, ${lng.toFixed(4)}`;
@@ -370,7 +424,7 @@ useEffect(() => {
               setIsLoadingLocation(false);
 
               // Save fallback location to backend
-              saveLocationToBackend(locationText);
+              saveLocationToBackend(locationText, { lat, lng });
             });
         },
         (error) => {
@@ -708,6 +762,7 @@ useEffect(() => {
                   />
                 ))}
               </div>
+              {loadMoreBookingsButton}
             </div>
           </div>
         )}
@@ -783,7 +838,7 @@ useEffect(() => {
             <h2 className="dashboard-header-bold-white">Past Bookings</h2>
             <div className="customers-grid">
               {providerBookings
-                .filter(booking => booking.status === "COMPLETED" || booking.status === "CANCELLED")
+                .filter(booking => booking.status === "COMPLETED" || booking.status === "CANCELLED" || booking.status === "EXPIRED")
                 .map(booking => (
                   <CustomerSmallCard
                     key={booking.bookingId}
@@ -793,6 +848,7 @@ useEffect(() => {
                   />
                 ))}
             </div>
+            {loadMoreBookingsButton}
           </div>
         )}
 
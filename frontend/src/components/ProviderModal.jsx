@@ -163,35 +163,30 @@ const ProviderModal = ({
     setSlotError("");
   }, [provider]);
 
-  const [allReviews, setAllReviews] = useState([]);
+  const [ratingSummary, setRatingSummary] = useState(null);
   const [loadingReviews, setLoadingReviews] = useState(true);
 
-  // Fetch reviews when modal opens
+  // Fetch the provider's rating summary (count and average) when modal opens
   useEffect(() => {
     if (rightPanel === 'booking' || rightPanel === 'reviews') {
-      const fetchReviews = async () => {
+      const fetchSummary = async () => {
         try {
-          const response = await fetch(`${API_BASE}/reviews/all`);
-          if (!response.ok) throw new Error("Error fetching reviews");
-          const data = await response.json();
-          setAllReviews(data);
+          const response = await fetch(`${API_BASE}/reviews/provider/${encodeURIComponent(provider.id)}/summary`);
+          if (!response.ok) throw new Error("Error fetching rating summary");
+          setRatingSummary(await response.json());
         } catch (err) {
           console.error(err);
-          setAllReviews([]);
+          setRatingSummary(null);
         }
         setLoadingReviews(false);
       };
-      fetchReviews();
+      fetchSummary();
     }
-  }, [rightPanel]);
+  }, [rightPanel, provider.id]);
 
-  const providerReviews = allReviews.filter(r => r.provider_id === provider.id);
+  const overallRating = ratingSummary?.average != null ? ratingSummary.average.toFixed(2) : "0.0";
 
-  const overallRating = providerReviews.length > 0
-    ? (providerReviews.reduce((sum, r) => sum + r.rating, 0) / providerReviews.length).toFixed(2)
-    : "0.0";
-
-  const totalReviews = providerReviews.length;
+  const totalReviews = ratingSummary?.reviewCount ?? 0;
 
   useEffect(() => {
     if (scrollRef.current) {
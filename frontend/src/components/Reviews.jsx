@@ -4,37 +4,76 @@ import { FaArrowLeft, FaStar } from "react-icons/fa";
 
 export const API_BASE = process.env.REACT_APP_API_URL || "http://localhost:8087";
 
+// reviews per page of the list; below app.reviews.recent.size, so the first page comes from the server cache
+const PAGE_SIZE = 10;
+
 const Reviews = ({ provider, onBack, bookingId, showAddButton = true }) => {
   // Add review state
   const [showAddReview, setShowAddReview] = useState(false);
   const [newReviewText, setNewReviewText] = useState("");
   const [newRating, setNewRating] = useState(0);
 
-  // Backend reviews state
+  // Backend reviews state: pages of the keyset feed, totals from the rating summary
   const [reviews, setReviews] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loadingReviews, setLoadingReviews] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [summary, setSummary] = useState({ reviewCount: 0, average: null });
+
+  // one page of this provider's reviews, newest first; cursor null = first page
+  const fetchReviewPage = async (cursor) => {
+    let url = `${API_BASE}/reviews/feed?providerId=${encodeURIComponent(provider.id)}&limit=${PAGE_SIZE}`;
+    if (cursor) url += `&cursor=${encodeURIComponent(cursor)}`;
+    const response = await fetch(url);
+    if (!response.ok) throw new Error("Error fetching reviews");
+    const data = await response.json();
+    return { items: data.items || [], nextCursor: data.nextCursor || null };
+  };
+
+  const fetchSummary = async () => {
+    try {
+      const response = await fetch(`${API_BASE}/reviews/provider/${encodeURIComponent(provider.id)}/summary`);
+      if (!response.ok) throw new Error("Error fetching rating summary");
+      const data = await response.json();
+      setSummary({ reviewCount: data.reviewCount || 0, average: data.average });
+    } catch (err) {
+      console.error(err);
+      setSummary({ reviewCount: 0, average: null });
+    }
+  };
+
+  const loadFirstPage = async () => {
+    try {
+      const page = await fetchReviewPage(null);
+      setReviews(page.items);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error(err);
+      setReviews([]);
+      setNextCursor(null);
+    }
+    setLoadingReviews(false);
+  };
 
-  // Fetch all reviews from backend on mount
+  // Fetch this provider's totals and first page from backend on mount
   useEffect(() => {
-    const fetchReviews = async () => {
-      try {
-        const response = await fetch(`${API_BASE}/reviews/all`);
-        if (!response.ok) throw new Error("Error fetching reviews");
-        const data = await response.json();
-        setReviews(data); // All reviews from backend
-      } catch (err) {
-        console.error(err);
-        setReviews([]);
-      }
-      setLoadingReviews(false);
-    };
-    fetchReviews();
-  }, []);
+    setLoadingReviews(true);
+    fetchSummary();
+    loadFirstPage();
+  }, [provider.id]);
 
-  // Filter for this provider's reviews only
-  const providerReviews = reviews.filter(
-    (review) => review.provider_id === provider.id
-  );
+  const loadMore = async () => {
+    if (!nextCursor || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      const page = await fetchReviewPage(nextCursor);
+      setReviews(prev => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error(err);
+    }
+    setLoadingMore(false);
+  };
 
   // Add review
   const handleSaveReview = async () => {
@@ -56,16 +95,9 @@ const Reviews = ({ provider, onBack, bookingId, showAddButton = true }) => {
         body: JSON.stringify(reviewPayload)
       });
       if (!response.ok) throw new Error("Failed to save review");
-      // instant UI feedback
-      setReviews([
-        ...reviews,
-        {
-          rating: newRating,
-          provider_id: provider.id,
-          comment: newReviewText,
-          customer_name: "You"
-        }
-      ]);
+      // the new review is the newest: reload the totals and the first page
+      fetchSummary();
+      loadFirstPage();
       setShowAddReview(false);
       setNewReviewText("");
       setNewRating(0);
@@ -94,25 +126,20 @@ const Reviews = ({ provider, onBack, bookingId, showAddButton = true }) => {
       <div className="reviews-summary">
         <div>
           <b>Overall Rating:</b>{" "}
-          {providerReviews.length > 0
-            ? (
-                (providerReviews.reduce((sum, r) => sum + r.rating, 0) / providerReviews.length).toFixed(1)
-              )
-            : "0.0"
-          } / 5
+          {summary.average != null ? Number(summary.average).toFixed(1) : "0.0"} / 5
         </div>
-        <div><b>Total Reviews:</b> {providerReviews.length}</div>
+        <div><b>Total Reviews:</b> {summary.reviewCount}</div>
       </div>
 
       <div className="reviews-list-container">
         {loadingReviews ? (
           <div>Loading reviews...</div>
-        ) : providerReviews.length === 0 ? (
+        ) : reviews.length === 0 ? (
           <div className="no-reviews-text">No reviews found.</div>
         ) : (
           <ul className="reviews-list">
-            {providerReviews.map((review, idx) => (
-              <li key={idx} className="review-item">
+            {reviews.map((review, idx) => (
+              <li key={review.reviewId || idx} className="review-item">
                 <b>{review.customer_name || "Anonymous"}</b>
                 <span className="review-rating"> ({review.rating}/5)</span><br />
                 <span>{review.comment}</span>
@@ -120,6 +147,11 @@ const Reviews = ({ provider, onBack, bookingId, showAddButton = true }) => {
             ))}
           </ul>
         )}
+        {nextCursor && (
+          <button className="load-more-reviews-btn" onClick={loadMore} disabled={loadingMore}>
+            {loadingMore ? "Loading..." : "Show more reviews"}
+          </button>
+        )}
       </div>
 
       {showAddReview && showAddButton && (
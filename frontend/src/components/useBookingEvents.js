@@ -0,0 +1,59 @@
+import { useEffect, useRef } from "react";
+
+const WS_BASE = `${window.location.protocol === 'https:' ? 'wss:' : 'ws:'}//${window.location.hostname}:8087/ws/chat`;
+const RECONNECT_MS = 5000;
+
+/**
+ * Booking pushes for the logged-in user, for as long as the dashboard is mounted.
+ * onEvent gets each {type: "booking", event, bookingId, status, at} frame;
+ * chat frames on the same socket are ignored here (ChatPanel has its own).
+ * Reconnects after a drop, calling onReconnect so the caller can refetch what it missed.
+ */
+export default function useBookingEvents(onEvent, onReconnect) {
+  const handlers = useRef({ onEvent, onReconnect });
+  handlers.current = { onEvent, onReconnect };
+
+  useEffect(() => {
+    let ws = null;
+    let timer = null;
+    let stopped = false;
+    let dropped = false;
+
+    const connect = () => {
+      const token = localStorage.getItem("token");
+      if (!token || stopped) return;
+      ws = new window.WebSocket(`${WS_BASE}?token=${encodeURIComponent(token)}`);
+      ws.onopen = () => {
+        if (stopped) {
+          ws.close();
+          return;
+        }
+        if (dropped && handlers.current.onReconnect) handlers.current.onReconnect();
+        dropped = false;
+      };
+      ws.onmessage = (ev) => {
+        let data;
+        try {
+          data = JSON.parse(ev.data);
+        } catch (_) {
+          return;
+        }
+        if (data && data.type === "booking" && handlers.current.onEvent) handlers.current.onEvent(data);
+      };
+      ws.onclose = () => {
+        if (stopped) return;
+        dropped = true;
+        timer = setTimeout(connect, RECONNECT_MS);
+      };
+    };
+
+    connect();
+    return () => {
+      stopped = true;
+      clearTimeout(timer);
+      try {
+        if (ws && ws.readyState === WebSocket.OPEN) ws.close();
+      } catch (_) {}
+    };
+  }, []);
+}